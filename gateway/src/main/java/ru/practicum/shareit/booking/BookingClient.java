@@ -2,54 +2,91 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 100;
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache cache,
+                         @Value("${shareit-server.body-read-timeout:PT30S}") Duration bodyReadTimeout) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                API_PREFIX,
+                cache,
+                bodyReadTimeout,
+                "/items"
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, String state) {
-        final Map<String, Object> parameters = Map.of("state", state);
-        return get("?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String state, LocalDateTime afterStart, Long afterId,
+                                              int size, boolean archived) {
+        Map<String, Object> parameters = pageParameters(afterStart, afterId, size, archived);
+        parameters.put("state", state);
+        return get("?state={state}" + pageQuery(parameters), userId, parameters);
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllBookingsForItems(long userId, State state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-
-        );
-        return get("/owner?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> findAllBookingsForItems(long userId, State state, LocalDateTime afterStart,
+                                                         Long afterId, int size, boolean archived) {
+        Map<String, Object> parameters = pageParameters(afterStart, afterId, size, archived);
+        parameters.put("state", state.name());
+        return get("/owner?state={state}" + pageQuery(parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> confirmBookingByOwner(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> confirmBookingByOwner(Long userId, Long bookingId, Boolean approved) {
         return patchWithId("/" + bookingId + "?approved=" + approved, userId);
     }
+
+    public Mono<ResponseEntity<Object>> confirmBookingsByOwner(long userId, BookingBatchDto dto) {
+        return patch("/batch", userId, dto);
+    }
+
+    private static Map<String, Object> pageParameters(LocalDateTime afterStart, Long afterId, int size,
+                                                      boolean archived) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (afterStart != null && afterId != null) {
+            parameters.put("afterStart", afterStart);
+            parameters.put("afterId", afterId);
+        }
+        parameters.put("size", size);
+        parameters.put("archived", archived);
+        return parameters;
+    }
+
+    private static String pageQuery(Map<String, Object> parameters) {
+        String query = "&size={size}&archived={archived}";
+        if (parameters.containsKey("afterId")) {
+            query += "&afterStart={afterStart}&afterId={afterId}";
+        }
+        return query;
+    }
 }
 
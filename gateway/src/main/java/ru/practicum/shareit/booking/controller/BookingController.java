@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,12 +17,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.group.Marker;
 
+import java.time.LocalDateTime;
+
 
 @RestController
 @RequiredArgsConstructor
@@ -30,33 +37,52 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@NotNull @RequestHeader(Constants.HEADER) Long userId,
-                                                @Validated({Marker.OnCreate.class}) @RequestBody BookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@NotNull @RequestHeader(Constants.HEADER) Long userId,
+                                                      @Validated({Marker.OnCreate.class}) @RequestBody BookingDto requestDto) {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> confirmBookingsByOwner(@RequestHeader(Constants.HEADER) Long userId,
+                                                               @Validated @RequestBody BookingBatchDto dto) {
+        return bookingClient.confirmBookingsByOwner(userId, dto);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirmBookingByOwner(@RequestHeader(Constants.HEADER) Long userId,
-                                                        @PathVariable Long bookingId, @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> confirmBookingByOwner(@RequestHeader(Constants.HEADER) Long userId,
+                                                              @PathVariable Long bookingId, @RequestParam Boolean approved) {
         return bookingClient.confirmBookingByOwner(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(Constants.HEADER) Long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(Constants.HEADER) Long userId,
+                                                   @PathVariable Long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsersBooking(@RequestHeader(Constants.HEADER) Long userId,
-                                                      @RequestParam(defaultValue = "ALL") String state) {
-        return bookingClient.getBookings(userId, state);
+    public Mono<ResponseEntity<Object>> findAllUsersBooking(@RequestHeader(Constants.HEADER) Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                            @RequestParam(required = false) Long afterId,
+                                                            @RequestParam(defaultValue = "20") @Positive
+                                                            @Max(BookingClient.MAX_PAGE_SIZE) int size,
+                                                            @RequestParam(defaultValue = "false") boolean archived) {
+        return bookingClient.getBookings(userId, state, afterStart, afterId, size, archived);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllBookingsForItems(@RequestHeader(Constants.HEADER) Long userId,
-                                                          @RequestParam(defaultValue = "ALL") @NotBlank String state) {
-        return bookingClient.findAllBookingsForItems(userId, State.valueOf(state));
+    public Mono<ResponseEntity<Object>> findAllBookingsForItems(@RequestHeader(Constants.HEADER) Long userId,
+                                                                @RequestParam(defaultValue = "ALL") @NotBlank String state,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                                @RequestParam(required = false) Long afterId,
+                                                                @RequestParam(defaultValue = "20") @Positive
+                                                                @Max(BookingClient.MAX_PAGE_SIZE) int size,
+                                                                @RequestParam(defaultValue = "false") boolean archived) {
+        return bookingClient.findAllBookingsForItems(userId, State.valueOf(state), afterStart, afterId, size,
+                archived);
 
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.BookingClient;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchDto {
+    private Set<@NotNull @Positive Long> approved;
+
+    private Set<@NotNull @Positive Long> rejected;
+
+    @JsonIgnore
+    @AssertTrue(message = "В одном запросе можно подтвердить и отклонить не больше "
+            + BookingClient.MAX_BATCH_SIZE + " бронирований.")
+    public boolean isWithinBatchLimit() {
+        return size(approved) + size(rejected) <= BookingClient.MAX_BATCH_SIZE;
+    }
+
+    private static int size(Set<Long> ids) {
+        return ids == null ? 0 : ids.size();
+    }
+}
@@ -1,95 +1,158 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constants.Request;
 
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Неблокирующий прокси к серверу: запрос уходит через {@link WebClient}, а контроллер возвращает
+ * {@link Mono}, так что поток Tomcat освобождается до ответа сервера и число одновременных
+ * запросов ограничено пулом соединений, а не пулом потоков. Тело ответа не разбирается: байты
+ * сервера вместе со статусом, {@code Content-Type} и {@code Content-Length} уходят клиенту буфер за
+ * буфером, поэтому размер ответа не влияет на занятую шлюзом память. Поток Tomcat, который пишет
+ * тело, ждёт очередного буфера не дольше {@code shareit-server.body-read-timeout}.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    private static final int PREFETCH_BUFFERS = 4;
+
+    protected final WebClient rest;
+    private final String prefix;
+    private final ResponseCache cache;
+    private final Duration bodyReadTimeout;
+    private final String[] invalidates;
+
+    /**
+     * @param prefix          путь клиента на сервере, с него начинаются ключи кэша
+     * @param bodyReadTimeout сколько поток Tomcat ждёт очередного буфера тела ответа сервера
+     * @param invalidates     префиксы путей, записи которых устаревают после изменяющих запросов клиента
+     */
+    public BaseClient(WebClient rest, String prefix, ResponseCache cache, Duration bodyReadTimeout,
+                      String... invalidates) {
         this.rest = rest;
+        this.prefix = prefix;
+        this.cache = cache;
+        this.bodyReadTimeout = bodyReadTimeout;
+        this.invalidates = invalidates;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getCached(String path, Long userId) {
+        return getCached(path, userId, null);
+    }
+
+    /**
+     * GET через {@link ResponseCache}: свежая запись отдаётся без запроса к серверу, устаревшая
+     * перепроверяется по ETag. Ответ буферизуется целиком, поэтому подходит для небольших ответов.
+     */
+    protected Mono<ResponseEntity<Object>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String key = ResponseCache.key(prefix + path, parameters, userId);
+        ResponseCache.CachedResponse cached = cache.get(key);
+        if (cached != null && cache.isFresh(cached)) {
+            return Mono.just(cached.toResponseEntity());
+        }
+        long generation = cache.generation();
+        return rest.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    if (cached != null && cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                })
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntity(byte[].class)
+                .map(response -> cache.update(key, cached, response, generation));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patchWithId(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patchWithId(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Void>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Void>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Void>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return prepareRequest(HttpMethod.DELETE, path, userId, parameters, null)
+                .toBodilessEntity()
+                .doFinally(signal -> cache.invalidate(invalidates));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = prepareRequest(method, path, userId, parameters, body)
+                .toEntityFlux(DataBuffer.class)
+                .map(this::prepareGatewayResponse);
+        return method == HttpMethod.GET ? response : response.doFinally(signal -> cache.invalidate(invalidates));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private <T> WebClient.ResponseSpec prepareRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = rest.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> exchange = body != null ? request.bodyValue(body) : request;
+        return exchange.retrieve()
+                .onStatus(status -> true, response -> Mono.empty());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -102,18 +165,43 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+        if (headers.getContentLength() >= 0) {
+            responseBuilder.contentLength(headers.getContentLength());
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (response.getBody() == null) {
+            return responseBuilder.build();
         }
 
-        return responseBuilder.build();
+        return responseBuilder.body(new InputStreamResource(() -> asInputStream(response.getBody())));
+    }
+
+    /**
+     * Поток открывается при записи ответа потоком Tomcat: в потоке Netty, где выполняется {@code map},
+     * блокирующее чтение запрещено. Вперёд запрашивается не больше {@value PREFETCH_BUFFERS} буферов,
+     * каждый освобождается, как только прочитан, а закрытие потока дочитывает и освобождает остаток,
+     * если клиент отключился раньше. Итератор блокирует поток Tomcat, поэтому ожидание каждого буфера
+     * ограничено {@code bodyReadTimeout}: если сервер замолчал посреди тела, чтение завершается
+     * ошибкой, соединение с сервером закрывается, а ответ клиенту обрывается.
+     */
+    private InputStream asInputStream(Flux<DataBuffer> body) {
+        Iterator<DataBuffer> buffers = body.timeout(bodyReadTimeout).toIterable(PREFETCH_BUFFERS).iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return buffers.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return buffers.next().asInputStream(true);
+            }
+        });
     }
 }
-
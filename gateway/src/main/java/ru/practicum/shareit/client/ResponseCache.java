@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш ответов сервера на повторяющиеся GET. Ключ — путь с параметрами и {@code X-Sharer-User-Id}.
+ * Запись моложе {@code fresh-for} отдаётся без обращения к серверу; более старая перепроверяется
+ * запросом с {@code If-None-Match}, и на 304 шлюз отдаёт сохранённое тело. Записи живут не дольше
+ * {@code keep-for}, их не больше {@code max-size}.
+ * Изменяющие запросы через {@link BaseClient} сбрасывают записи по префиксам путей. Ответ GET,
+ * начатого до сброса, в кэш уже не попадает. Изменения, сделанные в обход этого шлюза, видны не
+ * позже чем через {@code fresh-for}.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<String, CachedResponse> responses;
+    private final long freshForNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter notModified;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.fresh-for:PT5S}") Duration freshFor,
+                         @Value("${shareit-server.cache.keep-for:PT10M}") Duration keepFor) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(keepFor)
+                .recordStats()
+                .build();
+        this.freshForNanos = freshFor.toNanos();
+        this.notModified = Counter.builder("shareit.gateway.cache.not-modified")
+                .description("Записи кэша, подтверждённые сервером ответом 304")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "shareit.gateway.responses");
+    }
+
+    public static String key(String path, @Nullable Map<String, Object> parameters, @Nullable Long userId) {
+        String uri = parameters != null
+                ? UriComponentsBuilder.fromUriString(path).buildAndExpand(parameters).toUriString()
+                : path;
+        return uri + "|" + userId;
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Сохраняет ответ сервера на запрос, начатый при {@code generation}, и возвращает ответ клиенту:
+     * на 304 — сохранённое тело, иначе — полученное.
+     */
+    public ResponseEntity<Object> update(String key, @Nullable CachedResponse cached, ResponseEntity<byte[]> response,
+                                         long generation) {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+            notModified.increment();
+            CachedResponse revalidated = cached.revalidated(System.nanoTime());
+            put(key, revalidated, generation);
+            return revalidated.toResponseEntity();
+        }
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK) && response.getBody() != null) {
+            put(key, new CachedResponse(headers.getContentType(), response.getBody(), headers.getETag(),
+                    System.nanoTime()), generation);
+        }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+        if (headers.getETag() != null) {
+            responseBuilder.eTag(headers.getETag());
+        }
+        return response.getBody() != null ? responseBuilder.body(response.getBody()) : responseBuilder.build();
+    }
+
+    public boolean isFresh(CachedResponse cached) {
+        return System.nanoTime() - cached.storedAt() < freshForNanos;
+    }
+
+    public void invalidate(String... pathPrefixes) {
+        generation.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> {
+            for (String prefix : pathPrefixes) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private void put(String key, CachedResponse response, long startedAt) {
+        if (generation.get() != startedAt) {
+            return;
+        }
+        responses.put(key, response);
+        if (generation.get() != startedAt) {
+            responses.asMap().remove(key, response);
+        }
+    }
+
+    public record CachedResponse(@Nullable MediaType contentType, byte[] body, @Nullable String etag, long storedAt) {
+
+        CachedResponse revalidated(long now) {
+            return new CachedResponse(contentType, body, etag, now);
+        }
+
+        ResponseEntity<Object> toResponseEntity() {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+            if (contentType != null) {
+                responseBuilder.contentType(contentType);
+            }
+            if (etag != null) {
+                responseBuilder.eTag(etag);
+            }
+            return responseBuilder.body(body);
+        }
+    }
+}
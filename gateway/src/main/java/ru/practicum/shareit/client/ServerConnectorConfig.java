@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Общий для всех клиентов пул соединений Reactor Netty к серверу. Автоконфигурация
+ * {@code WebClient.Builder} подхватывает коннектор этого бина. Ограничение одно на весь пул, а не на
+ * маршрут, поэтому всплеск запросов к одному серверу может занять все {@code max-connections}.
+ * Запросы сверх них ждут свободного соединения не дольше {@code pending-acquire-timeout}.
+ * Соединение, простоявшее {@code max-idle-time}, закрывается фоновой очисткой раньше, чем его закроет
+ * сервер, а {@code max-life-time} не даёт держать одно соединение вечно. Состояние пула публикуется
+ * в метриках {@code reactor.netty.connection.provider.*} с тегом {@code name=shareit-server}.
+ */
+@Configuration
+public class ServerConnectorConfig {
+    public static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(
+            @Value("${shareit-server.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.max-pending:-1}") int maxPending,
+            @Value("${shareit-server.pending-acquire-timeout:PT30S}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.max-idle-time:PT20S}") Duration maxIdleTime,
+            @Value("${shareit-server.max-life-time:PT5M}") Duration maxLifeTime,
+            @Value("${shareit-server.evict-interval:PT30S}") Duration evictInterval) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector serverConnector(
+            ConnectionProvider serverConnectionProvider,
+            @Value("${shareit-server.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${shareit-server.response-timeout:PT30S}") Duration responseTimeout) {
+        return new ReactorClientHttpConnector(HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout));
+    }
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.exception;
 
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestControllerAdvice
 @Slf4j
@@ -28,5 +32,15 @@ public class ErrorHandler {
         return new ResponseEntity<>(Map.of("error",
                 e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
 
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleWebClientRequestException(
+            final WebClientRequestException e) {
+        Throwable cause = e.getMostSpecificCause();
+        boolean timeout = cause instanceof ReadTimeoutException || cause instanceof ConnectTimeoutException
+                || cause instanceof TimeoutException;
+        log.warn("Сервер недоступен: {} {}: {}", e.getMethod(), e.getUri(), cause.toString());
+        return new ResponseEntity<>(Map.of("error",
+                "Сервер недоступен."), timeout ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY);
+    }
+}
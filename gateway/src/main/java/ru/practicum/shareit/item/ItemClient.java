@@ -2,61 +2,95 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache cache,
+                      @Value("${shareit-server.body-read-timeout:PT30S}") Duration bodyReadTimeout) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                API_PREFIX,
+                cache,
+                bodyReadTimeout,
+                "/items", "/requests"
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto dto) {
+    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, ItemDto dto, Long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, ItemDto dto, Long itemId) {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> findItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> findItemById(Long userId, Long itemId, boolean archived) {
+        if (archived) {
+            return getCached("/" + itemId + "?archived={archived}", userId, Map.of("archived", true));
+        }
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findAll(Long userId) {
-
+    public Mono<ResponseEntity<Object>> findAll(Long userId, boolean archived) {
+        if (archived) {
+            return get("?archived={archived}", userId, Map.of("archived", true));
+        }
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findItemByDescription(String text) {
-        Map<String, Object> parameters = Map.of(
-                "text", text
+    public Mono<ResponseEntity<Object>> findItemByDescription(String text, LocalDateTime start, LocalDateTime end,
+                                                        long afterId, int size) {
+        if (text == null || text.isBlank()) {
+            return Mono.just(ResponseEntity.ok(List.of()));
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("afterId", afterId);
+        parameters.put("size", size);
+        String path = "/search?text={text}&afterId={afterId}&size={size}";
+        if (start != null && end != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path += "&start={start}&end={end}";
+        }
+        return get(path, null, parameters);
+    }
 
+    public Mono<ResponseEntity<Object>> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
         );
-        return get("/search?text={text}", null, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
-    public ResponseEntity<Object> removeItemById(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Void>> removeItemById(Long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, CommentDto commentDto, Long itemId) {
+    public Mono<ResponseEntity<Object>> addComment(Long userId, CommentDto commentDto, Long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
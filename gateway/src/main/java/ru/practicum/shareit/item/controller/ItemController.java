@@ -1,6 +1,11 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,55 +18,80 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.group.Marker;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
+@Validated
 public class ItemController {
 
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(Constants.HEADER) long userId, @Validated({Marker.OnCreate.class}) @RequestBody ItemDto dto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(Constants.HEADER) long userId, @Validated({Marker.OnCreate.class}) @RequestBody ItemDto dto) {
         return itemClient.createItem(userId, dto);
     }
 
     @PatchMapping("{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(Constants.HEADER) long userId, @RequestBody ItemDto dto,
-                                             @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(Constants.HEADER) long userId, @RequestBody ItemDto dto,
+                                                   @PathVariable long itemId) {
         return itemClient.updateItem(userId, dto, itemId);
     }
 
     @GetMapping("{itemId}")
-    public ResponseEntity<Object> findItemById(@RequestHeader(Constants.HEADER) Long userId, @PathVariable Long itemId) {
-        return itemClient.findItemById(userId, itemId);
+    public Mono<ResponseEntity<Object>> findItemById(@RequestHeader(Constants.HEADER) Long userId, @PathVariable Long itemId,
+                                                     @RequestParam(defaultValue = "false") boolean archived) {
+        return itemClient.findItemById(userId, itemId, archived);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll(@RequestHeader(Constants.HEADER) long userId) {
-        return itemClient.findAll(userId);
+    public Mono<ResponseEntity<Object>> findAll(@RequestHeader(Constants.HEADER) long userId,
+                                                @RequestParam(defaultValue = "false") boolean archived) {
+        return itemClient.findAll(userId, archived);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findItemByDescription(@RequestParam(required = false) String text) {
-        return itemClient.findItemByDescription(text);
+    public Mono<ResponseEntity<Object>> findItemByDescription(@RequestParam(required = false) String text,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                              @RequestParam(defaultValue = "0") @PositiveOrZero long afterId,
+                                                              @RequestParam(defaultValue = "20") @Positive
+                                                              @Max(ItemClient.MAX_SEARCH_PAGE_SIZE) int size) {
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new ValidationException("Период поиска задаётся парой start < end.");
+        }
+        return itemClient.findItemByDescription(text, start, end, afterId, size);
+    }
+
+    @GetMapping("{itemId}/availability")
+    public Mono<ResponseEntity<Object>> findAvailability(@PathVariable long itemId,
+                                                         @RequestParam
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.findAvailability(itemId, from, to);
     }
 
     @DeleteMapping("{itemId}")
-    public void removeItemById(@RequestHeader(Constants.HEADER) Long userId,
-                               @PathVariable Long itemId) {
-        itemClient.removeItemById(userId, itemId);
+    public Mono<Void> removeItemById(@RequestHeader(Constants.HEADER) Long userId,
+                                     @PathVariable Long itemId) {
+        return itemClient.removeItemById(userId, itemId).then();
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(Constants.HEADER) Long userId,
-                                             @Validated({Marker.OnCreate.class}) @RequestBody CommentDto commentDto,
-                                             @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(Constants.HEADER) Long userId,
+                                                   @Validated({Marker.OnCreate.class}) @RequestBody CommentDto commentDto,
+                                                   @PathVariable Long itemId) {
         return itemClient.addComment(userId, commentDto, itemId);
     }
 }
\ No newline at end of file
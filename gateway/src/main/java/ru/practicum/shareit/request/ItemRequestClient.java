@@ -2,44 +2,49 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.Duration;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ResponseCache cache,
+                             @Value("${shareit-server.body-read-timeout:PT30S}") Duration bodyReadTimeout) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                API_PREFIX,
+                cache,
+                bodyReadTimeout,
+                "/requests"
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> findAllWithReplies(Long userId) {
+    public Mono<ResponseEntity<Object>> findAllWithReplies(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAll(Long userId) {
-
-
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> findAll(Long userId) {
+        return getCached("/all", userId);
     }
 
-    public ResponseEntity<Object> findByIdWithReplies(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> findByIdWithReplies(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
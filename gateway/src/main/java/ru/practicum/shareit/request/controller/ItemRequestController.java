@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -23,24 +24,24 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(Request.USER_ID) Long userId,
-                                                @Valid @RequestBody ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(Request.USER_ID) Long userId,
+                                                      @Valid @RequestBody ItemRequestDto requestDto) {
         return itemRequestClient.createRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllWithReplies(@NotNull @RequestHeader(Request.USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> findAllWithReplies(@NotNull @RequestHeader(Request.USER_ID) Long userId) {
         return itemRequestClient.findAllWithReplies(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAll(@NotNull @RequestHeader(Request.USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> findAll(@NotNull @RequestHeader(Request.USER_ID) Long userId) {
         return itemRequestClient.findAll(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findByIdWithReplies(@RequestHeader(Request.USER_ID) Long userId,
-                                                      @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> findByIdWithReplies(@RequestHeader(Request.USER_ID) Long userId,
+                                                            @PathVariable Long requestId) {
         return itemRequestClient.findByIdWithReplies(userId, requestId);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.group.Marker;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,28 +16,28 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated({Marker.OnCreate.class}) @RequestBody UserDto dto) {
+    public Mono<ResponseEntity<Object>> createUser(@Validated({Marker.OnCreate.class}) @RequestBody UserDto dto) {
         return userClient.createUser(dto);
 
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> findUserById(@PathVariable long id) {
         return userClient.findUserById(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@Validated({Marker.OnUpdate.class}) @RequestBody UserDto dto, @PathVariable long id) {
+    public Mono<ResponseEntity<Object>> updateUser(@Validated({Marker.OnUpdate.class}) @RequestBody UserDto dto, @PathVariable long id) {
         return userClient.patchUser(id, dto);
     }
 
     @DeleteMapping("/{id}")
-    public void removeUserById(@PathVariable long id) {
-        userClient.removeUserById(id);
+    public Mono<Void> removeUserById(@PathVariable long id) {
+        return userClient.removeUserById(id).then();
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
+    public Mono<ResponseEntity<Object>> findAll() {
         return userClient.findUsers();
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package ru.practicum.shareit;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузка на прокси: {@value CONCURRENCY} одновременных запросов при {@value TOMCAT_THREADS} потоках Tomcat
+ * к серверу, который отвечает за {@value DELAY_MS} мс. Блокирующий прокси держал бы на сервере не больше
+ * запросов, чем потоков, и обслужил бы пачку не быстрее чем за CONCURRENCY / TOMCAT_THREADS * DELAY_MS.
+ * Запуск с одинаковой кучей для сравнения: {@code mvn test -pl gateway -Dtest=GatewayLoadTest
+ * -Dshareit.benchmark=true -DargLine=-Xmx256m}.
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=" + GatewayLoadTest.TOMCAT_THREADS,
+        "shareit-server.max-connections=" + GatewayLoadTest.CONCURRENCY,
+        "logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO"
+})
+public class GatewayLoadTest {
+    static final int TOMCAT_THREADS = 16;
+    static final int CONCURRENCY = 512;
+    private static final long DELAY_MS = 200;
+    private static final int ROUNDS = 3;
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+    private static DisposableServer upstream;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/users/{id}", (request, response) -> {
+                    PEAK.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.delay(Duration.ofMillis(DELAY_MS))
+                                    .map(tick -> "{\"id\":1,\"name\":\"user\",\"email\":\"user@example.com\"}")
+                                    .doFinally(signal -> IN_FLIGHT.decrementAndGet()));
+                }))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + upstream.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void sustainsMoreConcurrentRequestsThanTomcatThreads() {
+        ConnectionProvider connections = ConnectionProvider.builder("load")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections).baseUrl("http://localhost:" + port);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            PEAK.set(0);
+            long started = System.nanoTime();
+            List<Integer> statuses = Flux.range(0, CONCURRENCY)
+                    .flatMap(i -> client.get().uri("/users/1")
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status().code()))),
+                            CONCURRENCY)
+                    .collectList()
+                    .block();
+            assertEquals(Collections.nCopies(CONCURRENCY, 200), statuses);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("round=%d requests=%d tomcat threads=%d upstream peak in flight=%d elapsed=%d ms "
+                            + "(blocking proxy >= %d ms) heap max=%d MB used=%d MB%n",
+                    round, CONCURRENCY, TOMCAT_THREADS, PEAK.get(), elapsedMillis,
+                    CONCURRENCY / TOMCAT_THREADS * DELAY_MS, runtime.maxMemory() >> 20,
+                    (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+            assertTrue(PEAK.get() > TOMCAT_THREADS);
+        }
+        connections.disposeLater().block();
+    }
+}
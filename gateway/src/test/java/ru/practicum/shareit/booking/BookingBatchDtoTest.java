@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+@ContextConfiguration(classes = ShareItApp.class)
+public class BookingBatchDtoTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Проверяем ограничение суммарного размера пакета")
+    void combinedSizeIsLimited() {
+        BookingBatchDto full = new BookingBatchDto(ids(1, 60), ids(61, 100));
+        BookingBatchDto overflow = new BookingBatchDto(ids(1, 60), ids(61, 101));
+
+        assertThat(validator.validate(full)).isEmpty();
+        Set<ConstraintViolation<BookingBatchDto>> violations = validator.validate(overflow);
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getPropertyPath().toString()).isEqualTo("withinBatchLimit");
+    }
+
+    @Test
+    @DisplayName("Проверяем, что служебное свойство не уходит на сервер")
+    void serializeJsonTest() throws Exception {
+        String json = objectMapper.writeValueAsString(new BookingBatchDto(Set.of(1L), null));
+
+        assertThat(json).contains("\"approved\":[1]").doesNotContain("withinBatchLimit");
+    }
+
+    private static Set<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.response-timeout=PT1M",
+        "shareit-server.body-read-timeout=PT1S"
+})
+public class BaseClientTest {
+    private static final String USER = "{ \"id\" : 1,\n  \"name\" : \"user\", \"email\" : \"user@example.com\" }";
+    private static final String NOT_FOUND = "{\"error\":\"Пользователь с id = 2 не найден.\"}";
+    private static final String BOOKINGS = IntStream.range(0, 20_000)
+            .mapToObj(i -> "{\"id\":" + i + ",\"status\":\"APPROVED\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+    private static DisposableServer upstream;
+
+    @Autowired
+    private WebTestClient client;
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/users/1", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just(USER)))
+                        .get("/users/2", (request, response) -> response
+                                .status(HttpResponseStatus.NOT_FOUND)
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=UTF-8")
+                                .sendByteArray(Mono.just(NOT_FOUND.getBytes(StandardCharsets.UTF_8))))
+                        .get("/users", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Flux.just("[").concatWith(Flux.never())))
+                        .get("/bookings/owner", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Flux.range(0, BOOKINGS.length() / 1000 + 1)
+                                        .map(i -> BOOKINGS.substring(i * 1000,
+                                                Math.min(BOOKINGS.length(), (i + 1) * 1000))))))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + upstream.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void passesServerBodyThroughByteForByte() {
+        String body = client.get().uri("/users/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(USER, body);
+    }
+
+    @Test
+    void passesServerErrorStatusAndBodyThrough() {
+        client.get().uri("/users/2").exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType("application/json;charset=UTF-8")
+                .expectHeader().contentLength(NOT_FOUND.getBytes(StandardCharsets.UTF_8).length)
+                .expectBody().json(NOT_FOUND);
+    }
+
+    @Test
+    void streamsChunkedListResponse() {
+        String body = client.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build()
+                .get().uri("/bookings/owner?state=ALL").header("X-Sharer-User-Id", "1").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(BOOKINGS, body);
+    }
+
+    @Test
+    void stalledServerBodyReleasesRequestThreadAfterReadTimeout() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users")).build();
+
+        HttpResponse<String> response = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), response.statusCode());
+    }
+}
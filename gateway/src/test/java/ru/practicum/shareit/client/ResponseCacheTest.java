@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.cache.fresh-for=PT0.5S"
+})
+public class ResponseCacheTest {
+    private static final String ETAG = "\"v1\"";
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@example.com\"}";
+    private static final Map<String, AtomicInteger> REQUESTS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> NOT_MODIFIED = new ConcurrentHashMap<>();
+    private static DisposableServer upstream;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ResponseCache cache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/users/1", (request, response) -> answer("/users/1", USER, request, response))
+                        .get("/items/1", (request, response) -> answer("/items/1|" + request.requestHeaders()
+                                .get("X-Sharer-User-Id"), "{\"id\":1}", request, response))
+                        .route(request -> request.method() == HttpMethod.PATCH && request.uri().equals("/users/1"),
+                                (request, response) -> response
+                                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .sendString(request.receive().aggregate().asString())))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + upstream.port());
+    }
+
+    private static Mono<Void> answer(String counter, String body, HttpServerRequest request,
+                                     HttpServerResponse response) {
+        REQUESTS.computeIfAbsent(counter, key -> new AtomicInteger()).incrementAndGet();
+        response.header(HttpHeaderNames.ETAG, ETAG);
+        if (ETAG.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+            NOT_MODIFIED.computeIfAbsent(counter, key -> new AtomicInteger()).incrementAndGet();
+            return response.status(HttpResponseStatus.NOT_MODIFIED).send();
+        }
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just(body))
+                .then();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @BeforeEach
+    void clear() {
+        cache.invalidate("/");
+        REQUESTS.clear();
+        NOT_MODIFIED.clear();
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() {
+        for (int i = 0; i < 3; i++) {
+            client.get().uri("/users/1").exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectHeader().valueEquals("ETag", ETAG)
+                    .expectBody().json(USER);
+        }
+
+        assertEquals(1, REQUESTS.get("/users/1").get());
+    }
+
+    @Test
+    void cacheIsKeyedByUser() {
+        client.get().uri("/items/1").header("X-Sharer-User-Id", "1").exchange().expectStatus().isOk();
+        client.get().uri("/items/1").header("X-Sharer-User-Id", "2").exchange().expectStatus().isOk();
+        client.get().uri("/items/1").header("X-Sharer-User-Id", "1").exchange().expectStatus().isOk();
+
+        assertEquals(1, REQUESTS.get("/items/1|1").get());
+        assertEquals(1, REQUESTS.get("/items/1|2").get());
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithEtag() throws InterruptedException {
+        double notModifiedBefore = meterRegistry.counter("shareit.gateway.cache.not-modified").count();
+        client.get().uri("/users/1").exchange().expectStatus().isOk();
+
+        Thread.sleep(700);
+
+        client.get().uri("/users/1").exchange()
+                .expectStatus().isOk()
+                .expectBody().json(USER);
+        client.get().uri("/users/1").exchange().expectStatus().isOk();
+
+        assertEquals(2, REQUESTS.get("/users/1").get());
+        assertEquals(1, NOT_MODIFIED.get("/users/1").get());
+        assertEquals(1, meterRegistry.counter("shareit.gateway.cache.not-modified").count() - notModifiedBefore);
+    }
+
+    @Test
+    void mutationInvalidatesCachedResponses() {
+        client.get().uri("/users/1").exchange().expectStatus().isOk();
+        client.get().uri("/items/1").header("X-Sharer-User-Id", "1").exchange().expectStatus().isOk();
+
+        client.patch().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"renamed\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/users/1").exchange().expectStatus().isOk();
+        client.get().uri("/items/1").header("X-Sharer-User-Id", "1").exchange().expectStatus().isOk();
+
+        assertEquals(2, REQUESTS.get("/users/1").get());
+        assertEquals(2, REQUESTS.get("/items/1|1").get());
+        assertNull(NOT_MODIFIED.get("/users/1"));
+    }
+}
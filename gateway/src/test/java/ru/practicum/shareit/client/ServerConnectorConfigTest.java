@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.response-timeout=PT0.5S",
+        "shareit-server.max-idle-time=PT10S"
+})
+public class ServerConnectorConfigTest {
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@example.com\"}";
+    private static final AtomicInteger CONNECTIONS = new AtomicInteger();
+    private static DisposableServer upstream;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstreamUrl(DynamicPropertyRegistry registry) {
+        upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .doOnChannelInit((observer, channel, address) -> CONNECTIONS.incrementAndGet())
+                .route(routes -> routes
+                        .get("/users/1", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just(USER)))
+                        .get("/users/2", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.delay(Duration.ofSeconds(2)).thenReturn(USER))))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + upstream.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void sequentialRequestsReuseKeptAliveConnectionAndPublishPoolMetrics() {
+        int connectionsBefore = CONNECTIONS.get();
+
+        for (int i = 0; i < 5; i++) {
+            client.get().uri("/users/1").exchange().expectStatus().isOk();
+        }
+
+        assertEquals(1, CONNECTIONS.get() - connectionsBefore);
+        Gauge total = meterRegistry.find("reactor.netty.connection.provider.total.connections")
+                .tag("name", ServerConnectorConfig.POOL_NAME)
+                .gauge();
+        assertNotNull(total);
+        assertEquals(1, total.value());
+    }
+
+    @Test
+    void slowServerAnswersGatewayTimeout() {
+        client.get().uri("/users/2").exchange()
+                .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT)
+                .expectBody().jsonPath("$.error").isEqualTo("Сервер недоступен.");
+    }
+}
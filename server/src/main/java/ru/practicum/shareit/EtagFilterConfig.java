@@ -0,0 +1,38 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.regex.Pattern;
+
+/**
+ * ETag для ответов, которые кэширует шлюз. Фильтр считает хэш тела и на {@code If-None-Match}
+ * с тем же значением отвечает 304 без тела, так что шлюз перепроверяет запись, не получая её заново.
+ * Хэш считается по буферизованному телу, поэтому фильтр работает только для GET карточек вещи
+ * и пользователя и списка чужих запросов: ответы на изменения и страницы поиска шлюз не кэширует.
+ */
+@Configuration
+public class EtagFilterConfig {
+    private static final Pattern CACHED_PATHS = Pattern.compile("/(items|users)/\\d+|/requests/all");
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new CachedResponseEtagFilter());
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/all");
+        return registration;
+    }
+
+    static class CachedResponseEtagFilter extends ShallowEtagHeaderFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return !HttpMethod.GET.matches(request.getMethod()) || !CACHED_PATHS.matcher(path).matches();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Раз в сутки переносит в архив бронирования, закончившиеся больше {@code after-months} месяцев назад,
+ * а при {@code comments=true} ещё и отзывы того же возраста. Архивные бронирования видны в выдаче
+ * только по запросу с {@code archived=true}; архивные отзывы из карточек вещей пропадают.
+ * За один запуск обрабатывается не больше {@code max-batches} пачек по {@code batch-size} строк.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = BookingArchiveScheduler.PROPERTY, havingValue = "true")
+public class BookingArchiveScheduler {
+    public static final String PROPERTY = "shareit.archive.enabled";
+
+    private final BookingArchiveService archiveService;
+    private final int afterMonths;
+    private final int batchSize;
+    private final int maxBatches;
+    private final boolean archiveComments;
+    private final Counter archivedBookings;
+    private final Counter archivedComments;
+    private final Timer runTimer;
+
+    public BookingArchiveScheduler(BookingArchiveService archiveService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${shareit.archive.after-months:12}") int afterMonths,
+                                   @Value("${shareit.archive.batch-size:500}") int batchSize,
+                                   @Value("${shareit.archive.max-batches:20}") int maxBatches,
+                                   @Value("${shareit.archive.comments:false}") boolean archiveComments) {
+        if (afterMonths <= 0 || batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Срок архивации, размер и число пачек должны быть положительными.");
+        }
+        this.archiveService = archiveService;
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archiveComments = archiveComments;
+        this.archivedBookings = Counter.builder("shareit.archive.bookings")
+                .description("Бронирования, перенесённые в архив")
+                .register(meterRegistry);
+        this.archivedComments = Counter.builder("shareit.archive.comments")
+                .description("Отзывы, перенесённые в архив")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.archive.run")
+                .description("Длительность запуска архивации")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${shareit.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minusMonths(afterMonths);
+            int bookings = inBatches(size -> archiveService.archiveBookingsBatch(cutoff, now, size));
+            archivedBookings.increment(bookings);
+            int comments = 0;
+            if (archiveComments) {
+                comments = inBatches(size -> archiveService.archiveCommentsBatch(cutoff, now, size));
+                archivedComments.increment(comments);
+            }
+            if (bookings > 0 || comments > 0) {
+                log.info("В архив перенесено {} бронирований и {} отзывов старше {}.", bookings, comments, cutoff);
+            }
+            return bookings;
+        });
+    }
+
+    private int inBatches(IntUnaryOperator batch) {
+        int total = 0;
+        int batches = 0;
+        int processed;
+        do {
+            processed = batch.applyAsInt(batchSize);
+            total += processed;
+            batches++;
+        } while (processed == batchSize && batches < maxBatches);
+        return total;
+    }
+}
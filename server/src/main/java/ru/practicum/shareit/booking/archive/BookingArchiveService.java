@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.StaleBookingView;
+import ru.practicum.shareit.booking.event.BookingsArchivedEvent;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.dao.CommentDao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит завершённые бронирования и старые отзывы в архивные таблицы. Каждая пачка
+ * копируется одним {@code INSERT ... SELECT} и удаляется из рабочей таблицы в той же транзакции,
+ * поэтому строка всегда находится ровно в одной из таблиц.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingArchiveService {
+    private final BookingDao bookingDao;
+    private final CommentDao commentDao;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public int archiveBookingsBatch(LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        List<StaleBookingView> ended = bookingDao.findEndedBefore(cutoff, Limit.of(batchSize));
+        if (ended.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = ended.stream().map(StaleBookingView::getId).toList();
+        int copied = bookingDao.copyToArchive(ids, cutoff, now);
+        int deleted = bookingDao.deleteStartedBefore(ids, cutoff);
+        if (copied != deleted) {
+            throw new BookingConflictException("Бронирования изменились во время переноса в архив.");
+        }
+        eventPublisher.publishEvent(new BookingsArchivedEvent(ended.stream()
+                .map(StaleBookingView::getItemId)
+                .collect(Collectors.toSet())));
+        return deleted;
+    }
+
+    @Transactional
+    public int archiveCommentsBatch(LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        List<Long> ids = commentDao.findIdsCreatedBefore(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        commentDao.copyToArchive(ids, now);
+        return commentDao.deleteByIdIn(ids);
+    }
+}
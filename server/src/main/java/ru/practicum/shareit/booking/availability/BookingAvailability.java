@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsArchivedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Занятость вещей по ожидающим и подтверждённым бронированиям. Интервалы вещи загружаются
+ * из базы при первом обращении и обновляются после коммита изменений бронирований.
+ * Загрузка может прочитать базу до коммита изменения, пришедшего во время неё, поэтому такое
+ * изменение сбрасывает загружаемые интервалы, а не пропускается. Интервалы живут не дольше
+ * {@code expire-after}.
+ * Источник истины — триггер {@code bookings_no_overlap} в PostgreSQL.
+ */
+@Component
+public class BookingAvailability {
+    public static final Set<BookingStatus> OCCUPYING = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingDao bookingDao;
+    private final Cache<Long, ItemIntervals> intervals;
+
+    public BookingAvailability(BookingDao bookingDao,
+                               @Value("${shareit.bookings.intervals.max-items:10000}") long maxItems,
+                               @Value("${shareit.bookings.intervals.expire-after:PT10M}") Duration expireAfter) {
+        this.bookingDao = bookingDao;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(expireAfter)
+                .build();
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemId).overlaps(start, end);
+    }
+
+    public List<ItemIntervals.Interval> busy(long itemId, LocalDateTime from, LocalDateTime to) {
+        return intervals(itemId).overlapping(from, to);
+    }
+
+    public void evict(long itemId) {
+        intervals.invalidate(itemId);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ItemIntervals itemIntervals = intervals.getIfPresent(event.getItemId());
+        if (itemIntervals == null) {
+            // дожидается идущей загрузки и выбрасывает её результат
+            intervals.invalidate(event.getItemId());
+            return;
+        }
+        if (OCCUPYING.contains(event.getStatus())) {
+            itemIntervals.put(event.getBookingId(), event.getStart(), event.getEnd());
+        } else {
+            itemIntervals.remove(event.getBookingId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsExpired(BookingsExpiredEvent event) {
+        intervals.invalidateAll(event.getItemIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsArchived(BookingsArchivedEvent event) {
+        intervals.invalidateAll(event.getItemIds());
+    }
+
+    private ItemIntervals intervals(long itemId) {
+        return intervals.get(itemId, this::load);
+    }
+
+    private ItemIntervals load(long itemId) {
+        ItemIntervals itemIntervals = new ItemIntervals();
+        for (BookingIntervalView view : bookingDao.findByItemIdAndStatusIn(itemId, OCCUPYING)) {
+            itemIntervals.put(view.getId(), view.getStart(), view.getEnd());
+        }
+        return itemIntervals;
+    }
+}
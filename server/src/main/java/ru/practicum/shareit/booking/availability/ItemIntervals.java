@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Занятые интервалы {@code [start, end)} одной вещи, упорядоченные по началу.
+ * Интервалы ожидающих и подтверждённых бронирований не пересекаются (это держат ограничение
+ * {@code bookings_no_overlap} и миграция V4, отклоняющая пересечения, накопленные до него), поэтому
+ * пересечение с новым интервалом возможно только у интервала с наибольшим началом,
+ * меньшим конца нового: проверка стоит O(log n).
+ */
+public class ItemIntervals {
+    private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::start)
+            .thenComparingLong(Interval::bookingId);
+
+    private final NavigableSet<Interval> intervals = new TreeSet<>(ORDER);
+    private final Map<Long, Interval> byBookingId = new HashMap<>();
+
+    public synchronized void put(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+        Interval interval = new Interval(bookingId, start, end);
+        intervals.add(interval);
+        byBookingId.put(bookingId, interval);
+    }
+
+    public synchronized void remove(long bookingId) {
+        Interval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Interval candidate = intervals.lower(new Interval(Long.MIN_VALUE, end, end));
+        return candidate != null && candidate.end().isAfter(start);
+    }
+
+    /**
+     * Интервалы, пересекающиеся с окном {@code [from, to)}, в порядке начала:
+     * O(log n + k), где k — число найденных интервалов.
+     */
+    public synchronized List<Interval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Interval> result = new ArrayList<>();
+        Interval first = intervals.lower(new Interval(Long.MIN_VALUE, from, from));
+        if (first != null && first.end().isAfter(from)) {
+            result.add(first);
+        }
+        for (Interval interval : intervals.tailSet(new Interval(Long.MIN_VALUE, from, from), true)) {
+            if (!interval.start().isBefore(to)) {
+                break;
+            }
+            result.add(interval);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+    public record Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по айди вещи: запросы к одной вещи выполняются по очереди,
+ * к разным вещам — параллельно, пока их айди не попали в одну полосу.
+ * Блокировка держится до завершения транзакции и снимается последним обработчиком
+ * её завершения, после обновления {@link BookingAvailability}: следующий запрос
+ * к вещи видит бронирование уже закоммиченным и учтённым в интервалах.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(@Value("${shareit.bookings.lock-stripes:256}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(long itemId) {
+        lockAllUntilCompletion(List.of(itemId));
+    }
+
+    /**
+     * Захватывает полосы всех вещей по возрастанию номера полосы, поэтому пакетные
+     * запросы с пересекающимися наборами вещей не блокируют друг друга взаимно.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции.");
+        }
+        List<ReentrantLock> locks = itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .mapToObj(stripe -> stripes[stripe])
+                .toList();
+        locks.forEach(ReentrantLock::lock);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    int stripe(long itemId) {
+        long mixed = itemId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (stripes.length - 1);
+    }
+}
@@ -1,15 +1,18 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import ru.practicum.shareit.group.Marker;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -26,6 +29,12 @@ public class BookingController {
         return bookingService.createBooking(dto, userId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingOutputDto> confirmBookingsByOwner(@RequestHeader(Constants.HEADER) Long userId,
+                                                         @RequestBody BookingBatchDto dto) {
+        return bookingService.confirmBookingsByOwner(userId, dto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingOutputDto confirmBookingByOwner(@RequestHeader(Constants.HEADER) Long userId,
                                                   @PathVariable Long bookingId, @RequestParam Boolean approved) {
@@ -40,14 +49,24 @@ public class BookingController {
 
     @GetMapping
     public List<BookingOutputDto> findAllUsersBooking(@RequestHeader(Constants.HEADER) Long userId,
-                                                      @RequestParam String state) {
+                                                      @RequestParam String state,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                      @RequestParam(required = false) Long afterId,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @RequestParam(defaultValue = "false") boolean archived) {
 
-        return bookingService.findAllUsersBooking(userId, state);
+        return bookingService.findAllUsersBooking(userId, state, afterStart, afterId, size, archived);
     }
 
     @GetMapping("/owner")
     public List<BookingOutputDto> findAllBookingsForItems(@RequestHeader(Constants.HEADER) Long userId,
-                                                          @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsForItems(userId, state);
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                                          @RequestParam(required = false) Long afterId,
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(defaultValue = "false") boolean archived) {
+        return bookingService.findAllBookingsForItems(userId, state, afterStart, afterId, size, archived);
     }
 }
\ No newline at end of file
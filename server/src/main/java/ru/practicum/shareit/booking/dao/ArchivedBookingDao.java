@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedBookingDao extends JpaRepository<ArchivedBooking, Long> {
+    String OUTPUT_SELECT = """
+            SELECT new ru.practicum.shareit.booking.dto.BookingOutputDto(b.id, i.id, i.name, i.description,
+                i.available, i.request.id, b.start, b.end, u.id, u.name, u.email, b.status)
+            FROM ArchivedBooking b
+                JOIN b.item i
+                JOIN b.booker u
+            """;
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId" + BookingDao.KEYSET_ORDER)
+    List<BookingOutputDto> findBookerBookings(Long bookerId, LocalDateTime afterStart, Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId AND b.status = :status" + BookingDao.KEYSET_ORDER)
+    List<BookingOutputDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, LocalDateTime afterStart,
+                                                      Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId" + BookingDao.KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerBookings(Long ownerId, LocalDateTime afterStart, Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId AND b.status = :status" + BookingDao.KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, LocalDateTime afterStart,
+                                                     Long afterId, Limit limit);
+
+    boolean existsByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, BookingStatus status);
+}
@@ -1,34 +1,82 @@
 package ru.practicum.shareit.booking.dao;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.dto.StaleBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingDao extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByBookerIdAndEndIsAfterAndStartIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                              LocalDateTime end);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByItemOwnerIdAndEndIsAfterAndStartIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                                 LocalDateTime end);
+    String OUTPUT_SELECT = """
+            SELECT new ru.practicum.shareit.booking.dto.BookingOutputDto(b.id, i.id, i.name, i.description,
+                i.available, i.request.id, b.start, b.end, u.id, u.name, u.email, b.status)
+            FROM Booking b
+                JOIN b.item i
+                JOIN b.booker u
+            """;
+
+    /**
+     * Строки строго до курсора {@code (afterStart, afterId)} в порядке убывания. Условие
+     * {@code b.start <= :afterStart} ограничивает диапазон индекса {@code (..., start_time, booking_id)},
+     * поэтому глубокая страница читает с индекса только свои строки. Первая страница передаёт
+     * курсор {@link ru.practicum.shareit.booking.service.BookingService#FIRST_PAGE_START}
+     * и {@link Long#MAX_VALUE}.
+     */
+    String KEYSET_ORDER = """
+                AND b.start <= :afterStart AND (b.start < :afterStart OR b.id < :afterId)
+            ORDER BY b.start DESC, b.id DESC
+            """;
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId" + KEYSET_ORDER)
+    List<BookingOutputDto> findBookerBookings(Long bookerId, LocalDateTime afterStart, Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId AND b.status = :status" + KEYSET_ORDER)
+    List<BookingOutputDto> findBookerBookingsByStatus(Long bookerId, BookingStatus status, LocalDateTime afterStart,
+                                                      Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId AND b.start > :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findBookerFutureBookings(Long bookerId, LocalDateTime now, LocalDateTime afterStart,
+                                                    Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId AND b.end < :now AND b.start < :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findBookerPastBookings(Long bookerId, LocalDateTime now, LocalDateTime afterStart,
+                                                  Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE u.id = :bookerId AND b.end > :now AND b.start < :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findBookerCurrentBookings(Long bookerId, LocalDateTime now, LocalDateTime afterStart,
+                                                     Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId" + KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerBookings(Long ownerId, LocalDateTime afterStart, Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId AND b.status = :status" + KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, LocalDateTime afterStart,
+                                                     Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId AND b.start > :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerFutureBookings(Long ownerId, LocalDateTime now, LocalDateTime afterStart,
+                                                   Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId AND b.end < :now AND b.start < :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerPastBookings(Long ownerId, LocalDateTime now, LocalDateTime afterStart,
+                                                 Long afterId, Limit limit);
+
+    @Query(OUTPUT_SELECT + "WHERE b.ownerId = :ownerId AND b.end > :now AND b.start < :now" + KEYSET_ORDER)
+    List<BookingOutputDto> findOwnerCurrentBookings(Long ownerId, LocalDateTime now, LocalDateTime afterStart,
+                                                    Long afterId, Limit limit);
 
     Booking findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(BookingStatus status, Long authorId, Long itemId);
 
@@ -38,9 +86,83 @@ public interface BookingDao extends JpaRepository<Booking, Long> {
     List<Booking> findByItemIdAndItemOwnerIdAndStartIsBeforeAndStatusIsNot(Long itemId, Long userId, LocalDateTime start,
                                                                            BookingStatus status);
 
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId, BookingStatus status, LocalDateTime time);
+    List<BookingIntervalView> findByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    @Query("""
+            SELECT b.id AS id, i.id AS itemId, i.owner.id AS ownerId, b.start AS start, b.end AS end,
+                b.status AS status
+            FROM Booking b JOIN b.item i
+            WHERE b.id IN :ids
+            """)
+    List<BookingDecisionView> findDecisionViews(Collection<Long> ids);
+
+    @Query(OUTPUT_SELECT + "WHERE b.id IN :ids ORDER BY b.id")
+    List<BookingOutputDto> findOutputByIdIn(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Booking b
+            SET b.status = :status, b.version = b.version + 1
+            WHERE b.id IN :ids AND b.status <> :status
+            """)
+    int updateStatusIfChanged(Collection<Long> ids, BookingStatus status);
+
+    @Query("""
+            SELECT b.id AS id, b.item.id AS itemId
+            FROM Booking b
+            WHERE b.status = :status AND b.start < :now
+            ORDER BY b.id
+            """)
+    List<StaleBookingView> findStale(BookingStatus status, LocalDateTime now, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Booking b
+            SET b.status = :to, b.version = b.version + 1
+            WHERE b.id IN :ids AND b.status = :from
+            """)
+    int updateStatus(Collection<Long> ids, BookingStatus from, BookingStatus to);
+
+    @Query("""
+            SELECT b.id AS id, b.item.id AS itemId
+            FROM Booking b
+            WHERE b.start < :cutoff AND b.end < :cutoff
+            ORDER BY b.start, b.id
+            """)
+    List<StaleBookingView> findEndedBefore(LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bookings_archive"))
+    @Query(value = """
+            INSERT INTO bookings_archive (booking_id, start_time, end_time, item_id, booker_id, status, owner_id,
+                archived_at)
+            SELECT b.booking_id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status, b.owner_id, :archivedAt
+            FROM bookings b
+            WHERE b.booking_id IN (:ids) AND b.start_time < :cutoff
+            """, nativeQuery = true)
+    int copyToArchive(Collection<Long> ids, LocalDateTime cutoff, LocalDateTime archivedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids AND b.start < :cutoff")
+    int deleteStartedBefore(Collection<Long> ids, LocalDateTime cutoff);
 
-    List<Booking> findAllByIdIn(List<Long> itemsId);
+    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId, BookingStatus status, LocalDateTime time);
 
-    List<Booking> findAllByItemId(long itemId);
+    /**
+     * Последнее начавшееся и ближайшее будущее подтверждённое бронирование каждой вещи:
+     * не более двух строк на вещь независимо от истории бронирований.
+     */
+    @Query(value = """
+            SELECT r.booking_id AS id, r.item_id AS itemId, r.start_time AS startTime, r.end_time AS endTime,
+                r.next AS next
+            FROM (SELECT b.booking_id, b.item_id, b.start_time, b.end_time, b.start_time > :now AS next,
+                      ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_time > :now
+                          ORDER BY CASE WHEN b.start_time > :now THEN b.start_time END,
+                              b.start_time DESC, b.booking_id) AS rn
+                  FROM bookings b
+                  WHERE b.item_id IN (:itemIds)
+                      AND b.status = 'APPROVED') r
+            WHERE r.rn = 1
+            """, nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
 }
\ No newline at end of file
@@ -26,4 +26,11 @@ public class BookingOutputDto {
     private UserDto booker;
 
     private BookingStatus status;
+
+    public BookingOutputDto(Long id, Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                            Long requestId, LocalDateTime start, LocalDateTime end, Long bookerId, String bookerName,
+                            String bookerEmail, BookingStatus status) {
+        this(id, new ItemDto(itemId, itemName, itemDescription, itemAvailable, requestId), start, end,
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class BookingsArchivedEvent {
+    private final Set<Long> itemIds;
+}
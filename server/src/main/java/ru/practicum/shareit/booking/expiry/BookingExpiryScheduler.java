@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Периодически отклоняет ожидающие бронирования, начало которых уже наступило. За один запуск
+ * обрабатывается не больше {@code max-batches} пачек по {@code batch-size} бронирований;
+ * остаток дождётся следующего запуска.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = BookingExpiryScheduler.PROPERTY, havingValue = "true")
+public class BookingExpiryScheduler {
+    public static final String PROPERTY = "shareit.bookings.expiry.enabled";
+
+    private final BookingExpiryService expiryService;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+    private final DistributionSummary expiredPerRun;
+    private final Timer runTimer;
+
+    public BookingExpiryScheduler(BookingExpiryService expiryService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.bookings.expiry.batch-size:500}") int batchSize,
+                                  @Value("${shareit.bookings.expiry.max-batches:20}") int maxBatches) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Размер и число пачек истечения бронирований должны быть положительными.");
+        }
+        this.expiryService = expiryService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("shareit.bookings.expired")
+                .description("Ожидающие бронирования, отклонённые по истечении срока")
+                .register(meterRegistry);
+        this.expiredPerRun = DistributionSummary.builder("shareit.bookings.expiry.run.expired")
+                .description("Число бронирований, отклонённых за один запуск")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.bookings.expiry.run")
+                .description("Длительность запуска истечения бронирований")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.expiry.interval:PT1M}",
+            initialDelayString = "${shareit.bookings.expiry.interval:PT1M}")
+    public int expireStale() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            int batches = 0;
+            int processed;
+            do {
+                processed = expiryService.expireBatch(now, batchSize);
+                total += processed;
+                batches++;
+            } while (processed == batchSize && batches < maxBatches);
+            expired.increment(total);
+            expiredPerRun.record(total);
+            if (total > 0) {
+                log.info("Отклонено {} просроченных бронирований за {} пачек.", total, batches);
+            }
+            return total;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.StaleBookingView;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Отклоняет ожидающие бронирования, начало которых уже наступило. Каждая пачка обрабатывается
+ * в своей транзакции одним {@code UPDATE ... WHERE booking_id IN (...)}; условие на статус делает
+ * повторную обработку той же пачки безопасной, а подтверждение владельцем, успевшее раньше,
+ * не перезаписывается: его сохранение получит конфликт версии.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingExpiryService {
+    private final BookingDao bookingDao;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public int expireBatch(LocalDateTime now, int batchSize) {
+        List<StaleBookingView> stale = bookingDao.findStale(BookingStatus.WAITING, now, Limit.of(batchSize));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        int updated = bookingDao.updateStatus(stale.stream().map(StaleBookingView::getId).toList(),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+        eventPublisher.publishEvent(new BookingsExpiredEvent(stale.stream()
+                .map(StaleBookingView::getItemId)
+                .collect(Collectors.toSet())));
+        return updated;
+    }
+}
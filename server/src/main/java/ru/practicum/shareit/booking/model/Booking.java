@@ -2,7 +2,6 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,7 +14,6 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Table(name = "bookings")
@@ -43,5 +41,29 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    /**
+     * Копия {@code items.owner_id}: выборки бронирований владельца идут по своему индексу
+     * {@code (owner_id, start_time, booking_id)} без соединения с вещами.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
 
+    @Version
+    private long version;
+
+    public Booking(long id, Item item, LocalDateTime start, LocalDateTime end, User booker, BookingStatus status) {
+        this.id = id;
+        this.item = item;
+        this.start = start;
+        this.end = end;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
\ No newline at end of file
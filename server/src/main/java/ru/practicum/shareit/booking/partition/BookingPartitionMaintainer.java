@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Поддерживает месячные секции таблицы бронирований в PostgreSQL: заранее создаёт секции
+ * на {@code months-ahead} месяцев вперёд, а строки секций старше {@code retention-months} переносит
+ * в {@code bookings_archive}, после чего отсоединяет и удаляет сами секции. Перенесённые бронирования
+ * видны в выборках с {@code archived=true}. Нулевой срок хранения отключает отсоединение.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = BookingPartitionMaintainer.PROPERTY, havingValue = "true")
+public class BookingPartitionMaintainer {
+    public static final String PROPERTY = "shareit.bookings.partitions.enabled";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      @Value("${shareit.bookings.partitions.months-ahead:3}") int monthsAhead,
+                                      @Value("${shareit.bookings.partitions.retention-months:0}") int retentionMonths) {
+        if (monthsAhead < 0 || retentionMonths < 0) {
+            throw new IllegalArgumentException("Число месяцев для секций бронирований не может быть отрицательным.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    public void maintain(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            String created = jdbcTemplate.queryForObject("SELECT create_bookings_partition(?)", String.class, month);
+            if (created != null) {
+                log.info("Создана секция бронирований {}.", created);
+            }
+        }
+        if (retentionMonths > 0) {
+            LocalDate before = current.minusMonths(retentionMonths).atDay(1);
+            List<String> archived = jdbcTemplate.queryForList("SELECT detach_bookings_partitions(?)", String.class,
+                    before);
+            if (!archived.isEmpty()) {
+                log.info("Секции бронирований перенесены в архив и удалены: {}.", archived);
+            }
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
+    int MAX_PAGE_SIZE = 100;
+    int MAX_BATCH_SIZE = 100;
+    LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     BookingOutputDto createBooking(BookingDto dto, Long userId);
 
     BookingOutputDto confirmBookingByOwner(Long userId, Long bookingId, boolean approved);
 
+    List<BookingOutputDto> confirmBookingsByOwner(Long userId, BookingBatchDto dto);
+
     BookingOutputDto findBookingById(Long userId, Long bookingId);
 
-    List<BookingOutputDto> findAllUsersBooking(Long userId, String state);
+    List<BookingOutputDto> findAllUsersBooking(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                               int size, boolean archived);
 
-    List<BookingOutputDto> findAllBookingsForItems(Long userId, String state);
+    List<BookingOutputDto> findAllBookingsForItems(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                                   int size, boolean archived);
 }
@@ -2,15 +2,27 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.ItemIntervals;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
 import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotValidParameterException;
@@ -18,10 +30,15 @@ import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.filter.UserIdFilter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static ru.practicum.shareit.user.service.UserService.checkUserAvailability;
 
@@ -31,14 +48,19 @@ import static ru.practicum.shareit.user.service.UserService.checkUserAvailabilit
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingDao bookingDao;
+    private final ArchivedBookingDao archivedBookingDao;
     private final UserDao userDao;
+    private final UserIdFilter userIdFilter;
     private final ItemDao itemDao;
+    private final BookingAvailability availability;
+    private final ItemLocks itemLocks;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BookingOutputDto createBooking(BookingDto dto, Long userId) {
         Long itemId = dto.getItemId();
         validationBookingPeriod(dto);
-        checkUserAvailability(userDao, userId);
+        checkUserAvailability(userIdFilter, userDao, userId);
 
         Item item = itemDao.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Вещь с указанным айди не найдена."));
@@ -48,9 +70,11 @@ public class BookingServiceImpl implements BookingService {
         if (userId.equals(item.getOwner().getId())) {
             throw new NotFoundException("Владелец вещи не может её забронировать.");
         }
+        itemLocks.lockUntilCompletion(itemId);
+        checkItemIsFree(itemId, dto.getStart(), dto.getEnd());
         //   dto.setStatus(BookingStatus.WAITING);
         Booking booking = BookingMapper.toBooking(dto, item, userDao.getReferenceById(userId));
-        return BookingMapper.doBookingOutputDto(bookingDao.save(booking));
+        return BookingMapper.doBookingOutputDto(saveChecked(booking));
     }
 
     @Override
@@ -60,11 +84,11 @@ public class BookingServiceImpl implements BookingService {
         if (!(userId.equals(booking.getItem().getOwner().getId()))) {
             throw new NotValidParameterException("Только собственник может подтвердить бронирование");
         }
-        if (approved && booking.getStatus() == BookingStatus.APPROVED) {
-            throw new NotValidParameterException("Бронирование уже подтверждено.");
-        }
-        if (!approved && booking.getStatus() == BookingStatus.REJECTED) {
-            throw new NotValidParameterException("Бронирование уже отклонено.");
+        itemLocks.lockUntilCompletion(booking.getItem().getId());
+        checkDecision(booking.getStatus(), approved);
+
+        if (approved && booking.getStatus() == BookingStatus.REJECTED) {
+            checkItemIsFree(booking.getItem().getId(), booking.getStart(), booking.getEnd());
         }
 
         if (approved) {
@@ -72,7 +96,66 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        return BookingMapper.doBookingOutputDto(bookingDao.save(booking));
+        return BookingMapper.doBookingOutputDto(saveChecked(booking));
+    }
+
+    @Override
+    public List<BookingOutputDto> confirmBookingsByOwner(Long userId, BookingBatchDto dto) {
+        Set<Long> approved = dto.getApproved() == null ? Set.of() : dto.getApproved();
+        Set<Long> rejected = dto.getRejected() == null ? Set.of() : dto.getRejected();
+        if (approved.size() + rejected.size() > MAX_BATCH_SIZE) {
+            throw new NotValidParameterException("В одном запросе можно подтвердить не больше "
+                    + MAX_BATCH_SIZE + " бронирований.");
+        }
+        if (!Collections.disjoint(approved, rejected)) {
+            throw new NotValidParameterException("Бронирование не может быть одновременно подтверждено и отклонено.");
+        }
+        Set<Long> ids = new HashSet<>(approved);
+        ids.addAll(rejected);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<BookingDecisionView> bookings = bookingDao.findDecisionViews(ids);
+        if (bookings.size() != ids.size()) {
+            throw new NotFoundException("Бронирование с указанным айди не найдено.");
+        }
+        for (BookingDecisionView booking : bookings) {
+            if (!userId.equals(booking.getOwnerId())) {
+                throw new NotValidParameterException("Только собственник может подтвердить бронирование");
+            }
+        }
+        itemLocks.lockAllUntilCompletion(bookings.stream().map(BookingDecisionView::getItemId).toList());
+
+        List<BookingDecisionView> reapproved = new ArrayList<>();
+        for (BookingDecisionView booking : bookings) {
+            boolean approve = approved.contains(booking.getId());
+            checkDecision(booking.getStatus(), approve);
+            if (approve && booking.getStatus() == BookingStatus.REJECTED) {
+                checkItemIsFree(booking.getItemId(), booking.getStart(), booking.getEnd(), rejected);
+                reapproved.add(booking);
+            }
+        }
+        checkNoMutualOverlap(reapproved);
+
+        int updated;
+        try {
+            updated = updateStatus(rejected, BookingStatus.REJECTED) + updateStatus(approved, BookingStatus.APPROVED);
+        } catch (DataIntegrityViolationException e) {
+            reapproved.forEach(booking -> availability.evict(booking.getItemId()));
+            throw new BookingConflictException("Вещь уже забронирована на это время.");
+        }
+        if (updated != ids.size()) {
+            throw new BookingConflictException("Бронирование изменено параллельным запросом.");
+        }
+        for (BookingDecisionView booking : bookings) {
+            eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking.getItemId(),
+                    booking.getStart(), booking.getEnd(),
+                    approved.contains(booking.getId()) ? BookingStatus.APPROVED : BookingStatus.REJECTED));
+        }
+        log.info("Собственник с id {} подтвердил {} и отклонил {} бронирований.", userId, approved.size(),
+                rejected.size());
+        return bookingDao.findOutputByIdIn(ids);
     }
 
     @Override
@@ -92,69 +175,171 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingOutputDto> findAllUsersBooking(Long userId, String state) {
-        checkUserAvailability(userDao, userId);
-        LocalDateTime start = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
+    public List<BookingOutputDto> findAllUsersBooking(Long userId, String state, LocalDateTime afterStart,
+                                                      Long afterId, int size, boolean archived) {
+        checkUserAvailability(userIdFilter, userDao, userId);
+        LocalDateTime now = LocalDateTime.now();
+        checkPageCursor(afterStart, afterId);
+        LocalDateTime cursorStart = afterStart != null ? afterStart : FIRST_PAGE_START;
+        long cursorId = afterId != null ? afterId : Long.MAX_VALUE;
+        Limit limit = toLimit(size);
         //  checkEnumExist(state);
         State bookingStatus = State.from(state).orElseThrow(() -> new NotValidParameterException("Значение не соответствует допустимому %s" + state));
 
-        switch (bookingStatus) {
-            case ALL:
-                bookings = bookingDao.findByBookerIdOrderByStartDesc(userId);
-                break;
-            case CURRENT:
-                bookings = bookingDao.findByBookerIdAndEndIsAfterAndStartIsBeforeOrderByStartDesc(userId, start, start);
-                break;
-            case PAST:
-                bookings = bookingDao.findByBookerIdAndEndIsBeforeOrderByStartDesc(userId, start);
-                break;
-            case FUTURE:
-                bookings = bookingDao.findByBookerIdAndStartIsAfterOrderByStartDesc(userId, start);
-                break;
-            case WAITING:
-                bookings = bookingDao.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingDao.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-                break;
-        }
-        return BookingMapper.makeBookingsOutputList(bookings);
+        List<BookingOutputDto> bookings = switch (bookingStatus) {
+            case ALL -> bookingDao.findBookerBookings(userId, cursorStart, cursorId, limit);
+            case CURRENT -> bookingDao.findBookerCurrentBookings(userId, now, cursorStart, cursorId, limit);
+            case PAST -> bookingDao.findBookerPastBookings(userId, now, cursorStart, cursorId, limit);
+            case FUTURE -> bookingDao.findBookerFutureBookings(userId, now, cursorStart, cursorId, limit);
+            case WAITING -> bookingDao.findBookerBookingsByStatus(userId, BookingStatus.WAITING, cursorStart, cursorId,
+                    limit);
+            case REJECTED -> bookingDao.findBookerBookingsByStatus(userId, BookingStatus.REJECTED, cursorStart, cursorId,
+                    limit);
+        };
+        if (!archived) {
+            return bookings;
+        }
+        List<BookingOutputDto> archivedBookings = switch (bookingStatus) {
+            case ALL, PAST -> archivedBookingDao.findBookerBookings(userId, cursorStart, cursorId, limit);
+            case WAITING -> archivedBookingDao.findBookerBookingsByStatus(userId, BookingStatus.WAITING, cursorStart,
+                    cursorId, limit);
+            case REJECTED -> archivedBookingDao.findBookerBookingsByStatus(userId, BookingStatus.REJECTED, cursorStart,
+                    cursorId, limit);
+            case CURRENT, FUTURE -> List.of();
+        };
+        return mergePages(bookings, archivedBookings, limit);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingOutputDto> findAllBookingsForItems(Long userId, String state) {
-        checkUserAvailability(userDao, userId);
-        if (itemDao.findItemsByOwnerId(userId).isEmpty()) {
+    public List<BookingOutputDto> findAllBookingsForItems(Long userId, String state, LocalDateTime afterStart,
+                                                          Long afterId, int size, boolean archived) {
+        checkUserAvailability(userIdFilter, userDao, userId);
+        if (!itemDao.existsByOwnerId(userId)) {
             throw new NotFoundException("У пользователя нет вещей.");
         }
-        LocalDateTime start = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        checkPageCursor(afterStart, afterId);
+        LocalDateTime cursorStart = afterStart != null ? afterStart : FIRST_PAGE_START;
+        long cursorId = afterId != null ? afterId : Long.MAX_VALUE;
+        Limit limit = toLimit(size);
         //   checkEnumExist(state);
         State bookingStatus = State.from(state).orElseThrow(() -> new NotValidParameterException("Значение не соответствует допустимому %s" + state));
 
-        switch (bookingStatus) {
-            case ALL:
-                bookings = bookingDao.findByItemOwnerIdOrderByStartDesc(userId);
-                break;
-            case CURRENT:
-                bookings = bookingDao.findByItemOwnerIdAndEndIsAfterAndStartIsBeforeOrderByStartDesc(userId, start, start);
-                break;
-            case PAST:
-                bookings = bookingDao.findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, start);
-                break;
-            case FUTURE:
-                bookings = bookingDao.findByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, start);
-                break;
-            case WAITING:
-                bookings = bookingDao.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingDao.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-                break;
-        }
-        return BookingMapper.makeBookingsOutputList(bookings);
+        List<BookingOutputDto> bookings = switch (bookingStatus) {
+            case ALL -> bookingDao.findOwnerBookings(userId, cursorStart, cursorId, limit);
+            case CURRENT -> bookingDao.findOwnerCurrentBookings(userId, now, cursorStart, cursorId, limit);
+            case PAST -> bookingDao.findOwnerPastBookings(userId, now, cursorStart, cursorId, limit);
+            case FUTURE -> bookingDao.findOwnerFutureBookings(userId, now, cursorStart, cursorId, limit);
+            case WAITING -> bookingDao.findOwnerBookingsByStatus(userId, BookingStatus.WAITING, cursorStart, cursorId,
+                    limit);
+            case REJECTED -> bookingDao.findOwnerBookingsByStatus(userId, BookingStatus.REJECTED, cursorStart, cursorId,
+                    limit);
+        };
+        if (!archived) {
+            return bookings;
+        }
+        List<BookingOutputDto> archivedBookings = switch (bookingStatus) {
+            case ALL, PAST -> archivedBookingDao.findOwnerBookings(userId, cursorStart, cursorId, limit);
+            case WAITING -> archivedBookingDao.findOwnerBookingsByStatus(userId, BookingStatus.WAITING, cursorStart,
+                    cursorId, limit);
+            case REJECTED -> archivedBookingDao.findOwnerBookingsByStatus(userId, BookingStatus.REJECTED, cursorStart,
+                    cursorId, limit);
+            case CURRENT, FUTURE -> List.of();
+        };
+        return mergePages(bookings, archivedBookings, limit);
+    }
+
+    /**
+     * Сливает страницы рабочей и архивной таблиц, отсортированные одинаково, в одну страницу
+     * того же порядка. Архив содержит только завершённые бронирования, поэтому запрос к нему
+     * делается лишь для состояний, которые могут их включать.
+     */
+    private List<BookingOutputDto> mergePages(List<BookingOutputDto> bookings, List<BookingOutputDto> archived,
+                                              Limit limit) {
+        if (archived.isEmpty()) {
+            return bookings;
+        }
+        List<BookingOutputDto> merged = new ArrayList<>(bookings);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(BookingOutputDto::getStart)
+                .thenComparing(BookingOutputDto::getId)
+                .reversed());
+        return merged.subList(0, Math.min(limit.max(), merged.size()));
+    }
+
+    private void checkPageCursor(LocalDateTime afterStart, Long afterId) {
+        if ((afterStart == null) != (afterId == null)) {
+            throw new NotValidParameterException("Курсор страницы задаётся парой afterStart и afterId.");
+        }
+    }
+
+    private Limit toLimit(int size) {
+        if (size <= 0) {
+            throw new NotValidParameterException("Размер страницы должен быть положительным.");
+        }
+        return Limit.of(Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private void checkDecision(BookingStatus status, boolean approved) {
+        if (approved && status == BookingStatus.APPROVED) {
+            throw new NotValidParameterException("Бронирование уже подтверждено.");
+        }
+        if (!approved && status == BookingStatus.REJECTED) {
+            throw new NotValidParameterException("Бронирование уже отклонено.");
+        }
+    }
+
+    /**
+     * Отклонённые бронирования, подтверждаемые одним запросом, не видят друг друга в интервалах
+     * вещи: после сортировки по вещи и началу пересечение может быть только у соседей.
+     */
+    private void checkNoMutualOverlap(List<BookingDecisionView> bookings) {
+        bookings.sort(Comparator.comparing(BookingDecisionView::getItemId)
+                .thenComparing(BookingDecisionView::getStart));
+        for (int i = 1; i < bookings.size(); i++) {
+            BookingDecisionView previous = bookings.get(i - 1);
+            BookingDecisionView current = bookings.get(i);
+            if (previous.getItemId().equals(current.getItemId()) && current.getStart().isBefore(previous.getEnd())) {
+                throw new BookingConflictException("Вещь уже забронирована на это время.");
+            }
+        }
+    }
+
+    private int updateStatus(Set<Long> ids, BookingStatus status) {
+        return ids.isEmpty() ? 0 : bookingDao.updateStatusIfChanged(ids, status);
+    }
+
+    private void checkItemIsFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (availability.overlaps(itemId, start, end)) {
+            throw new BookingConflictException("Вещь уже забронирована на это время.");
+        }
+    }
+
+    /**
+     * Проверка для пакета: интервалы бронирований, которые этот же пакет отклоняет, уже не занимают вещь.
+     */
+    private void checkItemIsFree(long itemId, LocalDateTime start, LocalDateTime end, Set<Long> released) {
+        for (ItemIntervals.Interval busy : availability.busy(itemId, start, end)) {
+            if (!released.contains(busy.bookingId())) {
+                throw new BookingConflictException("Вещь уже забронирована на это время.");
+            }
+        }
+    }
+
+    private Booking saveChecked(Booking booking) {
+        Booking saved;
+        try {
+            saved = bookingDao.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            availability.evict(booking.getItem().getId());
+            throw new BookingConflictException("Вещь уже забронирована на это время.");
+        } catch (OptimisticLockingFailureException e) {
+            throw new BookingConflictException("Бронирование изменено параллельным запросом.");
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(saved.getId(), saved.getItem().getId(), saved.getStart(),
+                saved.getEnd(), saved.getStatus()));
+        return saved;
     }
 
     private void validationBookingPeriod(BookingDto booking) {
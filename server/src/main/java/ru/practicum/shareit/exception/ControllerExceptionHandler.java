@@ -59,6 +59,16 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(409).body(errors);
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<?> bookingConflictException(BookingConflictException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Конфликт бронирований", e.getMessage());
+
+        log.error(e.getStackTrace()[0].getMethodName() + ": " + e.getMessage());
+
+        return ResponseEntity.status(409).body(errors);
+    }
+
     @ExceptionHandler(NotAccessException.class)
     public ResponseEntity<?> notAccessException(NotAccessException e) {
         Map<String, String> errors = new HashMap<>();
@@ -1,16 +1,19 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.group.Marker;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -32,18 +35,38 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ItemDtoByOwner findItemById(@RequestHeader(Constants.HEADER) Long userId, @PathVariable Long itemId) {
-        return service.findItemById(userId, itemId);
+    public ItemDtoByOwner findItemById(@RequestHeader(Constants.HEADER) Long userId, @PathVariable Long itemId,
+                                       @RequestParam(defaultValue = "false") boolean archived) {
+        return service.findItemById(userId, itemId, archived);
     }
 
     @GetMapping
-    public List<ItemDtoByOwner> findAll(@RequestHeader(Constants.HEADER) long userId) {
-        return service.findAll(userId);
+    public List<ItemDtoByOwner> findAll(@RequestHeader(Constants.HEADER) long userId,
+                                        @RequestParam(defaultValue = "false") boolean archived) {
+        return service.findAll(userId, archived);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> findItemByDescription(@RequestParam String text) {
-        return service.findItemByDescription(text);
+    public List<ItemDto> findItemByDescription(@RequestParam String text,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                               @RequestParam(defaultValue = "0") long afterId,
+                                               @RequestParam(defaultValue = "20") int size) {
+        if (start != null || end != null) {
+            return service.findFreeItemsByDescription(text, start, end, afterId, size);
+        }
+        return service.findItemByDescription(text, afterId, size);
+    }
+
+    @GetMapping("{itemId}/availability")
+    public List<AvailabilitySlotDto> findAvailability(@PathVariable long itemId,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return service.findAvailability(itemId, from, to);
     }
 
     @DeleteMapping("{itemId}")
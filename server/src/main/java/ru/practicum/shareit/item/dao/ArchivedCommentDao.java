@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.item.model.ArchivedComment;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedCommentDao extends JpaRepository<ArchivedComment, Long> {
+    @EntityGraph(attributePaths = "author")
+    List<ArchivedComment> findAllByItemId(Long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    List<ArchivedComment> findAllByItemIdIn(Collection<Long> itemIds);
+}
@@ -1,8 +1,16 @@
 package ru.practicum.shareit.item.dao;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -11,11 +19,26 @@ public interface CommentDao extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemIdIn(Collection<Long> itemIds);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemIdIn(List<Long> itemsId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(Long id);
-}
-
-
-
 
+    @Query("SELECT c.id FROM Comment c WHERE c.created < :cutoff ORDER BY c.created, c.id")
+    List<Long> findIdsCreatedBefore(LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments_archive"))
+    @Query(value = """
+            INSERT INTO comments_archive (comment_id, text, author_id, item_id, created, archived_at)
+            SELECT c.comment_id, c.text, c.author_id, c.item_id, c.created, :archivedAt
+            FROM comments c
+            WHERE c.comment_id IN (:ids)
+            """, nativeQuery = true)
+    int copyToArchive(Collection<Long> ids, LocalDateTime archivedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
+}
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemDao extends JpaRepository<Item, Long> {
-    List<Item> findItemsByOwnerId(Long ownerId);
+    boolean existsByOwnerId(Long ownerId);
 
 
     @Query("""
@@ -16,12 +22,59 @@ public interface ItemDao extends JpaRepository<Item, Long> {
             WHERE i.available = true
                 AND (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%'))
                 OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?2, '%')))
+                AND i.id > ?3
+            ORDER BY i.id
             """)
-    List<Item> findByAvailableTrueAndDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(String text, String texts);
+    List<Item> findByAvailableTrueAndDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(String text, String texts,
+                                                                                               Long afterId,
+                                                                                               Pageable pageable);
+
+    /**
+     * Фильтр по подстроке без ранжирования. Совпадения отбираются во вложенном запросе, который
+     * {@code OFFSET 0} не даёт слить с внешним: PostgreSQL находит их по частичным GIN-индексам
+     * {@code items_*_trgm_idx}, а не обходит первичный ключ в порядке {@code item_id}, проверяя
+     * каждую строку. Сортируются только совпадения после курсора.
+     */
+    @Query(value = """
+            SELECT i.*
+            FROM (SELECT m.item_id
+                  FROM items m
+                  WHERE m.is_available = true
+                      AND (LOWER(m.item_name) LIKE '%' || LOWER(:text) || '%'
+                      OR LOWER(m.description) LIKE '%' || LOWER(:text) || '%')
+                      AND m.item_id > :afterId
+                  OFFSET 0) matched
+                JOIN items i ON i.item_id = matched.item_id
+            ORDER BY matched.item_id
+            LIMIT :size
+            """, nativeQuery = true)
+    List<Item> findAvailableByTrigramFilter(String text, long afterId, int size);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.available = true
+                AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%'))
+                OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))
+                AND i.id > :afterId
+                AND NOT EXISTS (SELECT b.id
+                                FROM Booking b
+                                WHERE b.item.id = i.id
+                                    AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED
+                                    AND b.start < :end
+                                    AND b.end > :start)
+            ORDER BY i.id
+            """)
+    List<ItemDto> findAvailableFreeBetween(String text, LocalDateTime start, LocalDateTime end, long afterId, Limit limit);
 
     List<Item> findAllByOwnerId(Long userId);
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.requester"})
+    List<Item> findByOwnerIdOrderById(Long ownerId);
+
     List<Item> findByRequestId(Long requestId);
 
     List<Item> findByRequestIdIn(List<Long> requestIds);
+
+    List<ItemSearchView> findByAvailableTrueAndIdGreaterThanOrderById(Long id, Limit limit);
 }
\ No newline at end of file
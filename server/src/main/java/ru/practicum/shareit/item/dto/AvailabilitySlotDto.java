@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private Boolean free;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final Long itemId;
+
+    private final String name;
+
+    private final String description;
+
+    private final boolean available;
+}
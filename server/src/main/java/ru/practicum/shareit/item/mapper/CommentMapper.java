@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
+import ru.practicum.shareit.item.model.ArchivedComment;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +23,16 @@ public class CommentMapper {
         );
     }
 
+    public static Comment toComment(ArchivedComment comment) {
+        return new Comment(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthor(),
+                comment.getItem(),
+                comment.getCreated()
+        );
+    }
+
     public static CommentInfoDto toCommentInfoDto(Comment comment) {
         return new CommentInfoDto(
                 comment.getId(),
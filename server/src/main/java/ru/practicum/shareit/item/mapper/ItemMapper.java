@@ -2,8 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
@@ -38,7 +37,7 @@ public class ItemMapper {
         return item;
     }
 
-    public static ItemDtoByOwner doItemDtoByOwner(Item item, Booking lastBooking, Booking nextBooking,
+    public static ItemDtoByOwner doItemDtoByOwner(Item item, BookingDto lastBooking, BookingDto nextBooking,
                                                   List<Comment> comments) {
         List<CommentInfoDto> commentInfoDto = comments.stream().map(CommentMapper::toCommentInfoDto).toList();
 
@@ -48,8 +47,8 @@ public class ItemMapper {
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                lastBooking != null ? BookingMapper.doBookingDto(lastBooking) : null,
-                nextBooking != null ? BookingMapper.doBookingDto(nextBooking) : null,
+                lastBooking,
+                nextBooking,
                 commentInfoDto
         );
     }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв, перенесённый из {@code comments} в архив. Строки только читаются:
+ * переносит их {@link ru.practicum.shareit.booking.archive.BookingArchiveService}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "comments_archive")
+public class ArchivedComment {
+    @Id
+    @Column(name = "comment_id")
+    private Long id;
+
+    @Column(nullable = false)
+    private String text;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.event.ItemRemovedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Поиск по {@link ItemSearchIndex}. Индекс строится в новый экземпляр и подменяет текущий целиком;
+ * изменения вещей, пришедшие во время построения, применяются к текущему индексу и запоминаются,
+ * а перед подменой повторяются на новом поверх прочитанных страниц. Чтение страниц из базы идёт
+ * без блокировки: у каждого построения свой журнал изменений, а {@code updates} берётся только
+ * на его регистрацию, повтор и подмену. Это {@link ReentrantLock}, а не монитор, чтобы ожидание
+ * не закрепляло виртуальный поток за потоком-носителем. До первой подмены поиск выполняет {@link JpqlItemSearchEngine}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index")
+public class IndexedItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemDao dao;
+    private final ItemSearchEngine fallback;
+    private final Lock updates = new ReentrantLock();
+    private final Set<List<Consumer<ItemSearchIndex>>> replays = Collections.newSetFromMap(new IdentityHashMap<>());
+    private volatile ItemSearchIndex index;
+
+    public IndexedItemSearchEngine(ItemDao dao) {
+        this.dao = dao;
+        this.fallback = new JpqlItemSearchEngine(dao);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Consumer<ItemSearchIndex>> replay = new ArrayList<>();
+        updates.lock();
+        try {
+            replays.add(replay);
+        } finally {
+            updates.unlock();
+        }
+        ItemSearchIndex rebuilt = new ItemSearchIndex();
+        try {
+            long lastId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = dao.findByAvailableTrueAndIdGreaterThanOrderById(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                for (ItemSearchView view : batch) {
+                    rebuilt.put(view.getId(), view.getName(), view.getDescription());
+                    lastId = view.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            updates.lock();
+            try {
+                replays.remove(replay);
+            } finally {
+                updates.unlock();
+            }
+            throw e;
+        }
+        updates.lock();
+        try {
+            replays.remove(replay);
+            replay.forEach(change -> change.accept(rebuilt));
+            index = rebuilt;
+        } finally {
+            updates.unlock();
+        }
+        log.info("Поисковый индекс вещей построен, проиндексировано {} вещей, повторено {} изменений.",
+                rebuilt.size(), replay.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        apply(target -> {
+            if (event.isAvailable()) {
+                target.put(event.getItemId(), event.getName(), event.getDescription());
+            } else {
+                target.remove(event.getItemId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRemoved(ItemRemovedEvent event) {
+        apply(target -> target.remove(event.getItemId()));
+    }
+
+    @Override
+    public List<Item> search(String text, long afterId, int size) {
+        ItemSearchIndex current = index;
+        if (current == null) {
+            return fallback.search(text, afterId, size);
+        }
+        List<Long> ids = current.search(text, afterId, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return dao.findAllById(ids).stream()
+                .filter(Item::getAvailable)
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+    }
+
+    private void apply(Consumer<ItemSearchIndex> change) {
+        updates.lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            replays.forEach(replay -> replay.add(change));
+        } finally {
+            updates.unlock();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Тот же фильтр по подстроке, что и {@link JpqlItemSearchEngine}, но нативным запросом,
+ * который PostgreSQL обслуживает GIN-индексами {@code pg_trgm} по названию и описанию вместо
+ * последовательного чтения таблицы. Результаты не ранжируются: страницы идут в порядке
+ * {@code item_id} под курсор {@code afterId}, как у остальных движков.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "trigram")
+public class TrigramFilterItemSearchEngine implements ItemSearchEngine {
+    private final ItemDao dao;
+
+    @Override
+    public List<Item> search(String text, long afterId, int size) {
+        return dao.findAvailableByTrigramFilter(text, afterId, size);
+    }
+}
@@ -3,25 +3,34 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.exception.NotAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
 public interface ItemService {
+    int MAX_SEARCH_PAGE_SIZE = 100;
+
     ItemDto createItem(ItemDto dto, long userId);
 
     ItemDto updateItem(ItemDto dto, long itemId, long userId);
 
-    ItemDtoByOwner findItemById(long userId, long itemId);
+    ItemDtoByOwner findItemById(long userId, long itemId, boolean archived);
+
+    List<ItemDtoByOwner> findAll(long userId, boolean archived);
+
+    List<ItemDto> findItemByDescription(String text, long afterId, int size);
 
-    List<ItemDtoByOwner> findAll(long userId);
+    List<ItemDto> findFreeItemsByDescription(String text, LocalDateTime start, LocalDateTime end, long afterId,
+                                             int size);
 
-    List<ItemDto> findItemByDescription(String text);
+    List<AvailabilitySlotDto> findAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     void removeItemById(long userId, long itemId);
 
@@ -2,23 +2,35 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.ItemIntervals;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
 import ru.practicum.shareit.booking.dao.BookingDao;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.item.dao.ArchivedCommentDao;
 import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
+import ru.practicum.shareit.item.event.ItemRemovedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ArchivedComment;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
@@ -32,7 +44,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,9 +53,14 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemDao dao;
     private final CommentDao commentDao;
+    private final ArchivedCommentDao archivedCommentDao;
     private final BookingDao bookingDao;
+    private final ArchivedBookingDao archivedBookingDao;
     private final UserDao userDao;
     private final ItemRequestDao itemRequestDao;
+    private final ItemSearchEngine searchEngine;
+    private final BookingAvailability availability;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ItemDto createItem(ItemDto dto, long userId) {
@@ -55,15 +71,16 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Нет такого запроса с id: " + dto.getRequestId()));
             item.setRequest(itemRequest);
         }
-        return ItemMapper.doItemDto(dao.save(item));
+        Item savedItem = dao.save(item);
+        publishSaved(savedItem);
+        return ItemMapper.doItemDto(savedItem);
     }
 
     @Override
     public ItemDto updateItem(ItemDto dto, long itemId, long userId) {
         userDao.findById(userId).orElseThrow(() -> new NotFoundException("Нет юзера по id: " + userId));
-        dao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещи нет"));
-        Item item = dao.findById(itemId).orElseThrow(() -> new NotFoundException("Нет предмета по id: " + userId));
-        ;
+        Item item = dao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещи нет"));
+        checkAccess(userId, item);
         if (dto.getName() != null && !(dto.getName().isBlank())) {
             item.setName(dto.getName());
         }
@@ -73,35 +90,42 @@ public class ItemServiceImpl implements ItemService {
         if (dto.getAvailable() != null) {
             item.setAvailable(dto.getAvailable());
         }
-        checkAccess(userId, itemId);
 
-        return ItemMapper.doItemDto(dao.save(item));
+        Item savedItem = dao.save(item);
+        publishSaved(savedItem);
+        return ItemMapper.doItemDto(savedItem);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemDtoByOwner findItemById(long userId, long itemId) {
+    public ItemDtoByOwner findItemById(long userId, long itemId, boolean archived) {
         Item item = dao.findById(itemId).orElseThrow(() -> new NotFoundException("Нет предмета по id:" + itemId));
         Long ownerId = item.getOwner().getId();
         List<Comment> comments = commentDao.findAllByItemId(item.getId());
-        List<Booking> bookings = bookingDao.findAllByItemId(itemId);
-        Booking lastBooking = getLastBooking(bookings);
-        Booking nextBooking = getNextBooking(bookings);
-        return ItemMapper.doItemDtoByOwner(item, lastBooking, nextBooking, comments);
+        if (archived) {
+            comments = mergeComments(comments, archivedCommentDao.findAllByItemId(item.getId()));
+        }
+        ItemBookings bookings = findLastAndNextBookings(List.of(itemId)).getOrDefault(itemId, ItemBookings.EMPTY);
+        return ItemMapper.doItemDtoByOwner(item, bookings.last(), bookings.next(), comments);
     }
 
     @Override
-    public List<ItemDtoByOwner> findAll(long userId) {
-        User user = userDao.findById(userId).orElseThrow(() -> new NotFoundException("Нет пользователя по id {} " + userId));
-        List<Item> items = dao.findAllByOwnerId(userId);
+    @Transactional(readOnly = true)
+    public List<ItemDtoByOwner> findAll(long userId, boolean archived) {
+        List<Item> items = dao.findByOwnerIdOrderById(userId);
+        if (items.isEmpty()) {
+            if (!userDao.existsById(userId)) {
+                throw new NotFoundException("Нет пользователя по id {} " + userId);
+            }
+            return Collections.emptyList();
+        }
         List<Long> itemsId = items.stream().map(Item::getId).toList();
-        List<Booking> bookings = bookingDao.findAllByIdIn(itemsId);
+        Map<Long, ItemBookings> bookingsMapByItemsId = findLastAndNextBookings(itemsId);
         List<Comment> comments = commentDao.findAllByItemIdIn(itemsId);
-        Map<Long, List<Booking>> bookingsMapByItemsId = new HashMap<>();
-        Map<Long, List<Comment>> commentsMapByItemsID = new HashMap<>();
-        for (Booking booking : bookings) {
-            bookingsMapByItemsId.computeIfAbsent(booking.getItem().getId(), k -> new ArrayList<>()).add(booking);
+        if (archived) {
+            comments = mergeComments(comments, archivedCommentDao.findAllByItemIdIn(itemsId));
         }
+        Map<Long, List<Comment>> commentsMapByItemsID = new HashMap<>();
         for (Comment comment : comments) {
             commentsMapByItemsID.computeIfAbsent(comment.getItem().getId(), c -> new ArrayList<>()).add(comment);
         }
@@ -109,11 +133,10 @@ public class ItemServiceImpl implements ItemService {
 
         for (Item item : items) {
             List<Comment> listComments = commentsMapByItemsID.getOrDefault(item.getId(), new ArrayList<>());
-            List<Booking> itemBookings = bookingsMapByItemsId.getOrDefault(item.getId(), new ArrayList<>());
-            Booking lastBooking = getLastBooking(itemBookings);
-            Booking nextBooking = getNextBooking(itemBookings);
+            ItemBookings itemBookings = bookingsMapByItemsId.getOrDefault(item.getId(), ItemBookings.EMPTY);
 
-            ItemDtoByOwner infoDto = ItemMapper.doItemDtoByOwner(item, lastBooking, nextBooking, listComments);
+            ItemDtoByOwner infoDto = ItemMapper.doItemDtoByOwner(item, itemBookings.last(), itemBookings.next(),
+                    listComments);
             itemInfoDto.add(infoDto);
         }
         return itemInfoDto;
@@ -123,21 +146,65 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> findItemByDescription(String text) {
+    public List<ItemDto> findItemByDescription(String text, long afterId, int size) {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
+        if (afterId < 0 || size <= 0) {
+            throw new NotValidParameterException("Некорректные параметры страницы поиска.");
+        }
         log.info("Найден список вещей по текстовому запросу {}", text);
-        return dao.findByAvailableTrueAndDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(text, text)
+        return searchEngine.search(text, afterId, Math.min(size, MAX_SEARCH_PAGE_SIZE))
                 .stream()
                 .map(ItemMapper::doItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> findFreeItemsByDescription(String text, LocalDateTime start, LocalDateTime end, long afterId,
+                                                    int size) {
+        checkPeriod(start, end);
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (afterId < 0 || size <= 0) {
+            throw new NotValidParameterException("Некорректные параметры страницы поиска.");
+        }
+        log.info("Найден список свободных с {} по {} вещей по текстовому запросу {}", start, end, text);
+        return dao.findAvailableFreeBetween(text, start, end, afterId, Limit.of(Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlotDto> findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        checkPeriod(from, to);
+        ItemService.checkItemAvailability(dao, itemId);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (ItemIntervals.Interval busy : availability.busy(itemId, from, to)) {
+            LocalDateTime start = busy.start().isAfter(cursor) ? busy.start() : cursor;
+            LocalDateTime end = busy.end().isBefore(to) ? busy.end() : to;
+            if (!end.isAfter(start)) {
+                continue;
+            }
+            if (start.isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, start, true));
+            }
+            slots.add(new AvailabilitySlotDto(start, end, false));
+            cursor = end;
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(cursor, to, true));
+        }
+        return slots;
+    }
+
     @Override
     public void removeItemById(long userId, long itemId) {
-        checkAccess(userId, itemId);
+        checkAccess(userId, dao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещи нет")));
         dao.deleteById(itemId);
+        eventPublisher.publishEvent(new ItemRemovedEvent(itemId));
     }
 
     @Override
@@ -146,7 +213,8 @@ public class ItemServiceImpl implements ItemService {
         Item item = dao.findById(itemId).orElseThrow(() -> new NotFoundException("Нет такого предмета по id: " + itemId));
 
         if (bookingDao.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(userId, itemId,
-                BookingStatus.APPROVED, LocalDateTime.now()).isEmpty()) {
+                BookingStatus.APPROVED, LocalDateTime.now()).isEmpty()
+                && !archivedBookingDao.existsByBookerIdAndItemIdAndStatus(userId, itemId, BookingStatus.APPROVED)) {
             throw new NotValidParameterException("Ошибка написания отзыва. Пользователь не бронировал вещь.");
         }
 
@@ -157,31 +225,54 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentInfoDto(comment);
     }
 
-    private void checkAccess(long userId, long itemId) {
-        Item item = dao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещи нет"));
+    /**
+     * Добавляет к отзывам из рабочей таблицы отзывы из архива. Архивные отзывы старше рабочих,
+     * общий список упорядочен по времени создания.
+     */
+    private static List<Comment> mergeComments(List<Comment> comments, List<ArchivedComment> archived) {
+        if (archived.isEmpty()) {
+            return comments;
+        }
+        List<Comment> merged = new ArrayList<>(archived.size() + comments.size());
+        archived.forEach(comment -> merged.add(CommentMapper.toComment(comment)));
+        merged.addAll(comments);
+        merged.sort(Comparator.comparing(Comment::getCreated).thenComparing(Comment::getId));
+        return merged;
+    }
+
+    private void publishSaved(Item item) {
+        eventPublisher.publishEvent(new ItemSavedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable())));
+    }
+
+    private void checkPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new NotValidParameterException("Некорректный период: начало должно быть раньше конца.");
+        }
+    }
+
+    private void checkAccess(long userId, Item item) {
         Long ownerId = item.getOwner().getId();
         if (!Objects.equals(userId, ownerId)) {
             throw new NotFoundException("Редактирование вещи доступно только владельцу.");
         }
     }
 
-    private Booking getLastBooking(List<Booking> bookings) {
-        if (bookings.isEmpty() || bookings.size() == 1) {
-            return null;
+    private Map<Long, ItemBookings> findLastAndNextBookings(List<Long> itemsId) {
+        Map<Long, ItemBookings> bookings = new HashMap<>();
+        for (ItemBookingView view : bookingDao.findLastAndNextApproved(itemsId, LocalDateTime.now())) {
+            BookingDto booking = new BookingDto(view.getId(), view.getItemId(), view.getStartTime(),
+                    view.getEndTime());
+            bookings.merge(view.getItemId(),
+                    view.isNext() ? new ItemBookings(null, booking) : new ItemBookings(booking, null),
+                    (current, added) -> new ItemBookings(
+                            added.last() != null ? added.last() : current.last(),
+                            added.next() != null ? added.next() : current.next()));
         }
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(booking -> booking.getStart() != null)
-                .max(Comparator.comparing(Booking::getStart));
-        return lastBooking.orElse(null);
+        return bookings;
     }
 
-    private Booking getNextBooking(List<Booking> bookings) {
-        if (bookings.isEmpty() || bookings.size() == 1) {
-            return null;
-        }
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(booking -> booking.getEnd() != null)
-                .max(Comparator.comparing(Booking::getEnd));
-        return lastBooking.orElse(null);
+    private record ItemBookings(BookingDto last, BookingDto next) {
+        static final ItemBookings EMPTY = new ItemBookings(null, null);
     }
-}
\ No newline at end of file
+}
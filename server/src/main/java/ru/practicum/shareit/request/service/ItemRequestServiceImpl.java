@@ -17,6 +17,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.filter.UserIdFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import static ru.practicum.shareit.user.service.UserService.checkUserAvailabilit
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserDao userDao;
+    private final UserIdFilter userIdFilter;
     private final ItemRequestDao requestDao;
     private final ItemDao itemDao;
 
@@ -48,7 +50,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Transactional(readOnly = true)
     public List<ItemRequestDtoByOwner> findAllUsersRequestsWithReplies(Long userId) {
-        checkUserAvailability(userDao, userId);
+        checkUserAvailability(userIdFilter, userDao, userId);
         List<ItemRequest> requests = requestDao.findAllByRequesterId(userId);
 
         return findAndMap(requests);
@@ -65,7 +67,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Transactional(readOnly = true)
     public ItemRequestDtoByOwner findByIdWithReplies(Long userId, Long requestId) {
-        checkUserAvailability(userDao, userId);
+        checkUserAvailability(userIdFilter, userDao, userId);
         ItemRequest request = requestDao.findById(requestId).orElseThrow(() -> new NotFoundException("Запрос не найден."));
 
         List<Item> items = itemDao.findAllByOwnerId(userId);
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Следит за закреплением виртуальных потоков за несущими: блокировка внутри {@code synchronized}
+ * (драйвер JDBC, Hibernate, наш код) не отпускает несущий поток, и при
+ * {@code spring.threads.virtual.enabled=true} такие места съедают весь выигрыш. Слушает событие JFR
+ * {@code jdk.VirtualThreadPinned} дольше {@code threshold}, пишет длительность в таймер
+ * {@code shareit.threads.pinned} и один раз на каждое место логирует стек.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = PinnedThreadMonitor.PROPERTY, havingValue = "true")
+public class PinnedThreadMonitor implements DisposableBean {
+    public static final String PROPERTY = "shareit.threads.pinning-monitor.enabled";
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 15;
+
+    private final Timer pinned;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private final RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry,
+                               @Value("${shareit.threads.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+        this.pinned = Timer.builder("shareit.threads.pinned")
+                .description("Время, на которое виртуальный поток закрепился за несущим")
+                .register(meterRegistry);
+        this.stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Включено отслеживание закрепления виртуальных потоков дольше {}.", threshold);
+    }
+
+    @Override
+    public void destroy() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        List<String> frames = frames(event.getStackTrace());
+        String site = frames.stream()
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                .findFirst()
+                .orElse("");
+        if (reportedSites.add(site)) {
+            log.warn("Виртуальный поток закреплён за несущим на {} мс в {}:\n\t{}",
+                    event.getDuration().toMillis(), site, String.join("\n\t", frames));
+        } else {
+            log.debug("Виртуальный поток закреплён за несущим на {} мс.", event.getDuration().toMillis());
+        }
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user.filter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserRemovedEvent;
+
+import java.util.List;
+
+/**
+ * Новый пользователь попадает в карту сразу, ещё до коммита: лишний айди приведёт лишь к запросу в базу.
+ * Удалённый убирается только после коммита, чтобы откат не спрятал существующего пользователя.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = UserIdFilter.PROPERTY, havingValue = "bitmap")
+public class BitmapUserIdFilter implements UserIdFilter {
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private final UserDao dao;
+    private final UserIdBitmap bitmap = new UserIdBitmap();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long lastId = 0;
+        List<Long> batch;
+        do {
+            batch = dao.findIdsAfter(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Long id : batch) {
+                bitmap.add(id);
+                lastId = id;
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        ready = true;
+        log.info("Карта айди пользователей построена, загружено {} айди.", bitmap.size());
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        bitmap.add(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRemoved(UserRemovedEvent event) {
+        bitmap.remove(event.getUserId());
+    }
+
+    @Override
+    public boolean mightExist(long userId) {
+        return !ready || bitmap.mightContain(userId);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.filter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = UserIdFilter.PROPERTY, havingValue = "none", matchIfMissing = true)
+public class PassThroughUserIdFilter implements UserIdFilter {
+    @Override
+    public boolean mightExist(long userId) {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user.filter;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Множество айди пользователей в виде битовой карты: айди выдаются последовательно,
+ * поэтому на миллион пользователей уходит около 125 КБ. Айди за пределами {@code int}
+ * в карту не помещаются и считаются возможно существующими.
+ */
+public class UserIdBitmap {
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.set((int) id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.clear((int) id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean mightContain(long id) {
+        if (id < 0) {
+            return false;
+        }
+        if (id > Integer.MAX_VALUE) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get((int) id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
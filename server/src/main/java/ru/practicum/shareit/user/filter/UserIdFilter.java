@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.filter;
+
+public interface UserIdFilter {
+    String PROPERTY = "shareit.users.id-filter";
+
+    /**
+     * {@code false} означает, что пользователя с таким айди точно нет и в базу можно не ходить.
+     */
+    boolean mightExist(long userId);
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.filter.UserIdFilter;
 
 import java.util.List;
 
@@ -17,8 +18,8 @@ public interface UserService {
 
     List<UserDto> findAll();
 
-    static void checkUserAvailability(UserDao dao, long id) {
-        if (!dao.existsById(id)) {
+    static void checkUserAvailability(UserIdFilter filter, UserDao dao, long id) {
+        if (!filter.mightExist(id) || dao.findById(id).isEmpty()) {
             throw new NotFoundException("Пользователь с запрашиваемым айди не зарегистрирован.");
         }
     }
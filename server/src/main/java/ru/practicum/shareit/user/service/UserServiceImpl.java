@@ -2,12 +2,15 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserRemovedEvent;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -19,11 +22,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserDao userDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto createUser(UserDto dto) {
         User user = UserMapper.toUser(dto);
         User savedUser = userDao.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId()));
         log.info("Создан пользователь {}.", savedUser);
         return UserMapper.doUserDto(savedUser);
     }
@@ -55,6 +60,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void removeUserById(long id) {
         userDao.deleteById(id);
+        eventPublisher.publishEvent(new UserRemovedEvent(id));
         log.info("Пользователь с айди успешно удален {}.", id);
     }
 
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, comments;
-
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY UNIQUE,
@@ -33,9 +31,13 @@ CREATE TABLE IF NOT EXISTS bookings
     end_time   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT REFERENCES items (item_id),
     booker_id  BIGINT REFERENCES users (user_id),
-    status     VARCHAR(255)
+    status     VARCHAR(255),
+    version    BIGINT NOT NULL DEFAULT 0
 );
 
+-- Таблица из старого schema.sql, принятая через baseline-on-migrate, не имеет столбца версии.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 CREATE TABLE IF NOT EXISTS comments
 (
     comment_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY UNIQUE,
@@ -43,4 +45,4 @@ CREATE TABLE IF NOT EXISTS comments
     author_id  BIGINT REFERENCES users (user_id),
     item_id    BIGINT REFERENCES items (item_id),
     created    TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
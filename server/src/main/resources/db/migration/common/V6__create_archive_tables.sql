@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    booking_id  BIGINT PRIMARY KEY,
+    start_time  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_time    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id     BIGINT REFERENCES items (item_id),
+    booker_id   BIGINT REFERENCES users (user_id),
+    status      VARCHAR(255),
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS comments_archive
+(
+    comment_id  BIGINT PRIMARY KEY,
+    text        VARCHAR (255) NOT NULL,
+    author_id   BIGINT REFERENCES users (user_id),
+    item_id     BIGINT REFERENCES items (item_id),
+    created     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS bookings_archive_booker_start_idx ON bookings_archive (booker_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_booker_status_start_idx
+    ON bookings_archive (booker_id, status, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_item_start_idx ON bookings_archive (item_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS comments_archive_item_idx ON comments_archive (item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_start_idx ON bookings (start_time, booking_id);
+CREATE INDEX IF NOT EXISTS comments_created_idx ON comments (created, comment_id);
@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, creation_time);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (creation_time DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_time);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
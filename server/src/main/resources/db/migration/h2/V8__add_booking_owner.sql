@@ -0,0 +1,12 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+ALTER TABLE bookings_archive ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.item_id = b.item_id) WHERE owner_id IS NULL;
+UPDATE bookings_archive b SET owner_id = (SELECT i.owner_id FROM items i WHERE i.item_id = b.item_id)
+WHERE owner_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_owner_start_idx ON bookings_archive (owner_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_owner_status_start_idx
+    ON bookings_archive (owner_id, status, start_time, booking_id);
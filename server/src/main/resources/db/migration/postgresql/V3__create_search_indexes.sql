@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_name_trgm_idx
+    ON items USING GIN (LOWER(item_name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_description_trgm_idx
+    ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE is_available;
@@ -0,0 +1,59 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Отклоняет пересекающиеся активные бронирования, накопившиеся до появления ограничения:
+-- из каждой пары остаётся созданное раньше, более позднее получает статус REJECTED.
+-- Без этого добавление ограничения на такой базе падает и приложение не стартует.
+-- Возвращает число отклонённых бронирований.
+CREATE OR REPLACE FUNCTION reject_overlapping_bookings() RETURNS INTEGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    candidate RECORD;
+    rejected  INTEGER := 0;
+BEGIN
+    FOR candidate IN
+        SELECT b.booking_id, b.item_id, b.start_time, b.end_time
+        FROM bookings b
+        WHERE b.status IN ('WAITING', 'APPROVED')
+          AND EXISTS (SELECT 1
+                      FROM bookings o
+                      WHERE o.item_id = b.item_id
+                        AND o.booking_id < b.booking_id
+                        AND o.status IN ('WAITING', 'APPROVED')
+                        AND o.start_time < b.end_time
+                        AND o.end_time > b.start_time)
+        ORDER BY b.booking_id
+        LOOP
+            -- Более ранний участник пары мог уже быть отклонён на предыдущем шаге.
+            IF EXISTS (SELECT 1
+                       FROM bookings o
+                       WHERE o.item_id = candidate.item_id
+                         AND o.booking_id < candidate.booking_id
+                         AND o.status IN ('WAITING', 'APPROVED')
+                         AND o.start_time < candidate.end_time
+                         AND o.end_time > candidate.start_time) THEN
+                UPDATE bookings
+                SET status  = 'REJECTED',
+                    version = version + 1
+                WHERE booking_id = candidate.booking_id;
+                RAISE WARNING 'Бронирование % вещи % (% - %) пересекается с более ранним и отклонено.',
+                    candidate.booking_id, candidate.item_id, candidate.start_time, candidate.end_time;
+                rejected := rejected + 1;
+            END IF;
+        END LOOP;
+    RETURN rejected;
+END
+$$;
+
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN
+        PERFORM reject_overlapping_bookings();
+        ALTER TABLE bookings
+            ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+            WHERE (status IN ('WAITING', 'APPROVED'));
+    END IF;
+END
+$$;
@@ -0,0 +1,137 @@
+-- Ограничения секций проверяют каждую переносимую строку, поэтому пересечения,
+-- попавшие в таблицу в обход ограничения, отклоняются до переноса.
+SELECT reject_overlapping_bookings();
+
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER INDEX bookings_pkey RENAME TO bookings_unpartitioned_pkey;
+ALTER TABLE bookings_unpartitioned DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+
+DROP INDEX IF EXISTS bookings_booker_start_idx;
+DROP INDEX IF EXISTS bookings_booker_status_start_idx;
+DROP INDEX IF EXISTS bookings_item_start_idx;
+DROP INDEX IF EXISTS bookings_item_status_start_idx;
+DROP INDEX IF EXISTS bookings_status_start_idx;
+DROP INDEX IF EXISTS bookings_item_approved_start_idx;
+DROP INDEX IF EXISTS bookings_waiting_start_idx;
+
+CREATE TABLE bookings
+(
+    booking_id BIGINT GENERATED ALWAYS AS IDENTITY,
+    start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_time   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT REFERENCES items (item_id),
+    booker_id  BIGINT REFERENCES users (user_id),
+    status     VARCHAR(255),
+    version    BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT bookings_pkey PRIMARY KEY (booking_id, start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+ALTER TABLE bookings_default
+    ADD CONSTRAINT bookings_default_no_overlap
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+-- Создаёт месячную секцию bookings_pYYYYMM. Строки этого месяца, успевшие попасть
+-- в секцию по умолчанию, переносятся в новую секцию. Возвращает имя созданной секции
+-- или NULL, если она уже есть.
+CREATE OR REPLACE FUNCTION create_bookings_partition(month DATE) RETURNS TEXT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    from_time TIMESTAMP := date_trunc('month', month);
+    to_time   TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition TEXT      := 'bookings_p' || to_char(date_trunc('month', month), 'YYYYMM');
+    misplaced BOOLEAN;
+BEGIN
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT EXISTS (SELECT 1 FROM bookings_default WHERE start_time >= from_time AND start_time < to_time)
+    INTO misplaced;
+    IF misplaced THEN
+        ALTER TABLE bookings DETACH PARTITION bookings_default;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                   partition, from_time, to_time);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING GIST '
+                       || '(item_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                       || 'WHERE (status IN (''WAITING'', ''APPROVED''))',
+                   partition, partition || '_no_overlap');
+
+    IF misplaced THEN
+        INSERT INTO bookings (booking_id, start_time, end_time, item_id, booker_id, status, version)
+            OVERRIDING SYSTEM VALUE
+        SELECT booking_id, start_time, end_time, item_id, booker_id, status, version
+        FROM bookings_default
+        WHERE start_time >= from_time AND start_time < to_time;
+        DELETE FROM bookings_default WHERE start_time >= from_time AND start_time < to_time;
+        ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT;
+    END IF;
+    RETURN partition;
+END
+$$;
+
+-- Отсоединяет месячные секции, начавшиеся раньше месяца before, и переименовывает их
+-- в bookings_archive_pYYYYMM. Возвращает новые имена отсоединённых таблиц.
+CREATE OR REPLACE FUNCTION detach_bookings_partitions(before DATE) RETURNS SETOF TEXT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    partition TEXT;
+    archive   TEXT;
+BEGIN
+    FOR partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass
+          AND c.relname ~ '^bookings_p[0-9]{6}$'
+          AND to_date(substr(c.relname, 11), 'YYYYMM') < date_trunc('month', before)
+        ORDER BY c.relname
+        LOOP
+            archive := 'bookings_archive_p' || substr(partition, 11);
+            EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', partition);
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition, archive);
+            RETURN NEXT archive;
+        END LOOP;
+END
+$$;
+
+DO
+$$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(start_time) FROM bookings_unpartitioned), now()));
+BEGIN
+    WHILE month <= date_trunc('month', now()) + INTERVAL '3 months'
+        LOOP
+            PERFORM create_bookings_partition(month);
+            month := month + INTERVAL '1 month';
+        END LOOP;
+END
+$$;
+
+INSERT INTO bookings (booking_id, start_time, end_time, item_id, booker_id, status, version)
+    OVERRIDING SYSTEM VALUE
+SELECT booking_id, start_time, end_time, item_id, booker_id, status, version
+FROM bookings_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('bookings', 'booking_id'),
+              COALESCE((SELECT MAX(booking_id) FROM bookings), 0) + 1, false);
+
+DROP TABLE bookings_unpartitioned;
+
+CREATE INDEX bookings_booker_start_idx ON bookings (booker_id, start_time, booking_id);
+CREATE INDEX bookings_booker_status_start_idx ON bookings (booker_id, status, start_time, booking_id);
+CREATE INDEX bookings_item_start_idx ON bookings (item_id, start_time, booking_id);
+CREATE INDEX bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX bookings_status_start_idx ON bookings (status, start_time);
+
+CREATE INDEX bookings_item_approved_start_idx
+    ON bookings (item_id, start_time, end_time) WHERE status = 'APPROVED';
+
+CREATE INDEX bookings_waiting_start_idx
+    ON bookings (start_time, booking_id) WHERE status = 'WAITING';
@@ -0,0 +1,34 @@
+-- Ограничения исключения секций не видят пересечений бронирований, начавшихся в разных месяцах.
+-- Триггер проверяет всю таблицу под транзакционной блокировкой вещи, поэтому параллельная
+-- вставка пересекающегося бронирования ждёт коммита первой и видит её строку.
+CREATE OR REPLACE FUNCTION check_booking_overlap() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF NEW.status NOT IN ('WAITING', 'APPROVED') THEN
+        RETURN NULL;
+    END IF;
+
+    PERFORM pg_advisory_xact_lock(NEW.item_id);
+
+    IF EXISTS (SELECT 1
+               FROM bookings
+               WHERE item_id = NEW.item_id
+                 AND booking_id <> NEW.booking_id
+                 AND status IN ('WAITING', 'APPROVED')
+                 AND start_time < NEW.end_time
+                 AND end_time > NEW.start_time) THEN
+        RAISE EXCEPTION 'Бронирование % вещи % пересекается с другим бронированием.', NEW.booking_id, NEW.item_id
+            USING ERRCODE = 'exclusion_violation', CONSTRAINT = 'bookings_no_overlap';
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS bookings_no_overlap ON bookings;
+
+CREATE CONSTRAINT TRIGGER bookings_no_overlap
+    AFTER INSERT OR UPDATE OF item_id, start_time, end_time, status
+    ON bookings
+    FOR EACH ROW
+EXECUTE FUNCTION check_booking_overlap();
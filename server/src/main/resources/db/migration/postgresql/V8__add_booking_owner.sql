@@ -0,0 +1,53 @@
+-- Выборки бронирований владельца шли через соединение с items и не имели упорядоченного
+-- пути по bookings. Владелец вещи копируется в бронирование и получает свои индексы.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+ALTER TABLE bookings_archive ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings b SET owner_id = i.owner_id FROM items i WHERE i.item_id = b.item_id AND b.owner_id IS NULL;
+UPDATE bookings_archive b SET owner_id = i.owner_id FROM items i WHERE i.item_id = b.item_id AND b.owner_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_owner_start_idx ON bookings_archive (owner_id, start_time, booking_id);
+CREATE INDEX IF NOT EXISTS bookings_archive_owner_status_start_idx
+    ON bookings_archive (owner_id, status, start_time, booking_id);
+
+-- Перенос строк из секции по умолчанию теперь переносит и owner_id.
+CREATE OR REPLACE FUNCTION create_bookings_partition(month DATE) RETURNS TEXT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    from_time TIMESTAMP := date_trunc('month', month);
+    to_time   TIMESTAMP := date_trunc('month', month) + INTERVAL '1 month';
+    partition TEXT      := 'bookings_p' || to_char(date_trunc('month', month), 'YYYYMM');
+    misplaced BOOLEAN;
+BEGIN
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT EXISTS (SELECT 1 FROM bookings_default WHERE start_time >= from_time AND start_time < to_time)
+    INTO misplaced;
+    IF misplaced THEN
+        ALTER TABLE bookings DETACH PARTITION bookings_default;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                   partition, from_time, to_time);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING GIST '
+                       || '(item_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                       || 'WHERE (status IN (''WAITING'', ''APPROVED''))',
+                   partition, partition || '_no_overlap');
+
+    IF misplaced THEN
+        INSERT INTO bookings (booking_id, start_time, end_time, item_id, booker_id, status, version, owner_id)
+            OVERRIDING SYSTEM VALUE
+        SELECT booking_id, start_time, end_time, item_id, booker_id, status, version, owner_id
+        FROM bookings_default
+        WHERE start_time >= from_time AND start_time < to_time;
+        DELETE FROM bookings_default WHERE start_time >= from_time AND start_time < to_time;
+        ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT;
+    END IF;
+    RETURN partition;
+END
+$$;
@@ -0,0 +1,67 @@
+-- Отсоединённые секции превращались в отдельные таблицы bookings_archive_pYYYYMM, которые
+-- приложение не читает. Теперь строки секции сначала переносятся в bookings_archive, откуда
+-- их отдают выборки с archived=true, а пустая после переноса секция удаляется.
+
+-- Переносит строки таблицы бронирований в bookings_archive. Владелец берётся из вещи:
+-- таблицы, отсоединённые до V8, не имеют столбца owner_id. Возвращает число перенесённых строк.
+CREATE OR REPLACE FUNCTION copy_bookings_to_archive(source REGCLASS) RETURNS BIGINT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    copied BIGINT;
+BEGIN
+    EXECUTE format('INSERT INTO bookings_archive '
+                       || '(booking_id, start_time, end_time, item_id, booker_id, status, owner_id, archived_at) '
+                       || 'SELECT b.booking_id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status, '
+                       || 'i.owner_id, now() '
+                       || 'FROM %s b LEFT JOIN items i ON i.item_id = b.item_id '
+                       || 'ON CONFLICT (booking_id) DO NOTHING', source);
+    GET DIAGNOSTICS copied = ROW_COUNT;
+    RETURN copied;
+END
+$$;
+
+-- Переносит в архив строки месячных секций, начавшихся раньше месяца before, затем
+-- отсоединяет и удаляет эти секции. Возвращает имена удалённых секций.
+CREATE OR REPLACE FUNCTION detach_bookings_partitions(before DATE) RETURNS SETOF TEXT
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    partition TEXT;
+BEGIN
+    FOR partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass
+          AND c.relname ~ '^bookings_p[0-9]{6}$'
+          AND to_date(substr(c.relname, 11), 'YYYYMM') < date_trunc('month', before)
+        ORDER BY c.relname
+        LOOP
+            PERFORM copy_bookings_to_archive(partition::regclass);
+            EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', partition);
+            EXECUTE format('DROP TABLE %I', partition);
+            RETURN NEXT partition;
+        END LOOP;
+END
+$$;
+
+-- Таблицы, отсоединённые прежней версией функции, тоже переносятся в архив.
+DO
+$$
+DECLARE
+    detached TEXT;
+BEGIN
+    FOR detached IN
+        SELECT c.relname
+        FROM pg_class c
+        WHERE c.relkind = 'r'
+          AND c.relnamespace = current_schema()::regnamespace
+          AND c.relname ~ '^bookings_archive_p[0-9]{6}$'
+          AND NOT c.relispartition
+        LOOP
+            PERFORM copy_bookings_to_archive(detached::regclass);
+            EXECUTE format('DROP TABLE %I', detached);
+        END LOOP;
+END
+$$;
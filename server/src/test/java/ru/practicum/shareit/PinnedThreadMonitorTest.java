@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.threads.PinnedThreadMonitor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PinnedThreadMonitorTest {
+    private final Object lock = new Object();
+
+    @Test
+    void recordsVirtualThreadBlockedInsideSynchronized() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(registry, Duration.ofMillis(10));
+        try {
+            Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+            Thread.ofVirtual().start(() -> sleep(50)).join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (registry.timer("shareit.threads.pinned").count() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(1, registry.timer("shareit.threads.pinned").count());
+            assertTrue(registry.timer("shareit.threads.pinned").totalTime(TimeUnit.MILLISECONDS) >= 10);
+        } finally {
+            monitor.destroy();
+        }
+    }
+
+    private void sleepHoldingMonitor() {
+        synchronized (lock) {
+            sleep(50);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
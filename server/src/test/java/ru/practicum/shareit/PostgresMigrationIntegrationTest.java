@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогоняет миграции PostgreSQL на встроенном сервере и проверяет запрет пересечений бронирований,
+ * которые попадают в разные месячные секции, а также разбор пересечений, накопленных до ограничения.
+ */
+public class PostgresMigrationIntegrationTest {
+    private static final LocalDateTime JANUARY_31 = LocalDateTime.of(2040, 1, 31, 12, 0);
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private long bookerId;
+    private long itemId;
+
+    @BeforeAll
+    static void migrate() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+        migrate(dataSource, MigrationVersion.LATEST);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.queryForList("SELECT create_bookings_partition(DATE '2040-01-01'), "
+                + "create_bookings_partition(DATE '2040-02-01')");
+    }
+
+    private static void migrate(DataSource target, MigrationVersion version) {
+        Flyway.configure()
+                .dataSource(target)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        bookerId = jdbcTemplate.queryForObject("INSERT INTO users (user_name, user_email) "
+                + "VALUES ('booker', gen_random_uuid() || '@example.com') RETURNING user_id", Long.class);
+        itemId = jdbcTemplate.queryForObject("INSERT INTO items (item_name, description, is_available, owner_id) "
+                + "VALUES ('table', 'black', true, ?) RETURNING item_id", Long.class, bookerId);
+    }
+
+    @Test
+    void overlapSpanningTwoMonthPartitionsIsRejected() {
+        insertBooking(JANUARY_31, JANUARY_31.plusDays(2), "APPROVED");
+
+        Assertions.assertThatThrownBy(() -> insertBooking(JANUARY_31.plusDays(1), JANUARY_31.plusDays(3), "WAITING"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        Assertions.assertThat(partitionsOfItem()).containsExactly("bookings_p204001");
+    }
+
+    @Test
+    void adjacentAndRejectedBookingsInNextMonthAreAccepted() {
+        insertBooking(JANUARY_31, JANUARY_31.plusDays(1), "APPROVED");
+        insertBooking(JANUARY_31.plusDays(1), JANUARY_31.plusDays(3), "WAITING");
+        insertBooking(JANUARY_31.plusHours(12), JANUARY_31.plusDays(2), "REJECTED");
+
+        Assertions.assertThat(partitionsOfItem())
+                .containsExactly("bookings_p204001", "bookings_p204002", "bookings_p204002");
+    }
+
+    @Test
+    void approvingRejectedBookingOverlappingPreviousMonthIsRejected() {
+        insertBooking(JANUARY_31, JANUARY_31.plusDays(2), "APPROVED");
+        insertBooking(JANUARY_31.plusDays(1), JANUARY_31.plusDays(3), "REJECTED");
+
+        Assertions.assertThatThrownBy(() -> jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' "
+                        + "WHERE item_id = ? AND status = 'REJECTED'", itemId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void concurrentOverlapInNextMonthWaitsForFirstCommitAndFails() throws Exception {
+        try (Connection first = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            insertBooking(first, JANUARY_31, JANUARY_31.plusDays(2));
+
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    insertBooking(connection, JANUARY_31.plusDays(1), JANUARY_31.plusDays(3));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e.getSQLState(), e);
+                }
+            });
+            Thread.sleep(500);
+            Assertions.assertThat(second).isNotDone();
+
+            first.commit();
+
+            Assertions.assertThat(second).failsWithin(10, TimeUnit.SECONDS)
+                    .withThrowableOfType(ExecutionException.class)
+                    .havingCause()
+                    .withMessage("23P01");
+        }
+        Assertions.assertThat(partitionsOfItem()).containsExactly("bookings_p204001");
+    }
+
+    @Test
+    void overlapsStoredBeforeConstraintAreRejectedByMigration() {
+        jdbcTemplate.execute("CREATE DATABASE legacy");
+        DataSource legacy = postgres.getDatabase("postgres", "legacy");
+        migrate(legacy, MigrationVersion.fromVersion("3"));
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        long user = legacyJdbc.queryForObject("INSERT INTO users (user_name, user_email) "
+                + "VALUES ('owner', 'owner@example.com') RETURNING user_id", Long.class);
+        long item = legacyJdbc.queryForObject("INSERT INTO items (item_name, description, is_available, owner_id) "
+                + "VALUES ('table', 'black', true, ?) RETURNING item_id", Long.class, user);
+        String insert = "INSERT INTO bookings (start_time, end_time, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?) RETURNING booking_id";
+        long first = legacyJdbc.queryForObject(insert, Long.class, JANUARY_31, JANUARY_31.plusDays(4), item, user,
+                "APPROVED");
+        long second = legacyJdbc.queryForObject(insert, Long.class, JANUARY_31.plusDays(2), JANUARY_31.plusDays(6),
+                item, user, "WAITING");
+        long third = legacyJdbc.queryForObject(insert, Long.class, JANUARY_31.plusDays(5), JANUARY_31.plusDays(7),
+                item, user, "WAITING");
+        long rejected = legacyJdbc.queryForObject(insert, Long.class, JANUARY_31.plusDays(1), JANUARY_31.plusDays(2),
+                item, user, "REJECTED");
+
+        migrate(legacy, MigrationVersion.LATEST);
+
+        Assertions.assertThat(legacyJdbc.queryForList("SELECT booking_id, status FROM bookings ORDER BY booking_id"))
+                .containsExactly(Map.of("booking_id", first, "status", "APPROVED"),
+                        Map.of("booking_id", second, "status", "REJECTED"),
+                        Map.of("booking_id", third, "status", "WAITING"),
+                        Map.of("booking_id", rejected, "status", "REJECTED"));
+    }
+
+    private void insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (start_time, end_time, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?)", start, end, itemId, bookerId, status);
+    }
+
+    private void insertBooking(Connection connection, LocalDateTime start, LocalDateTime end) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO bookings "
+                + "(start_time, end_time, item_id, booker_id, status) VALUES (?, ?, ?, ?, 'WAITING')")) {
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(end));
+            statement.setLong(3, itemId);
+            statement.setLong(4, bookerId);
+            statement.executeUpdate();
+        }
+    }
+
+    private List<String> partitionsOfItem() {
+        return jdbcTemplate.queryForList("SELECT tableoid::regclass::text FROM bookings WHERE item_id = ? "
+                + "ORDER BY start_time, booking_id", String.class, itemId);
+    }
+}
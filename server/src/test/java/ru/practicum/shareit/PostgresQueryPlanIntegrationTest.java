@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.item.dao.ItemDao;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверяет планы PostgreSQL для постраничных выборок бронирований с глубоким курсором:
+ * секции читаются обратным обходом индекса с условием на {@code start_time}, без сортировки
+ * и без отбрасывания строк, уже показанных на предыдущих страницах. Поиск вещей по подстроке
+ * должен читать таблицу через триграммные индексы.
+ */
+@SpringBootTest(properties = {"spring.flyway.postgresql.transactional-lock=false",
+        "shareit.search.engine=jpql"})
+public class PostgresQueryPlanIntegrationTest {
+    private static final int OWNERS = 20;
+    private static final int BOOKINGS_PER_OWNER = 500;
+    private static final int DEPTH = 250;
+    private static final Limit PAGE = Limit.of(20);
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static final Pattern BOOKINGS_SCAN = Pattern.compile("Scan.* on bookings_\\w+ .*rows=(\\d+)");
+    private static final Pattern REMOVED = Pattern.compile("Rows Removed by Filter: (\\d+)");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private BookingDao bookingDao;
+    @Autowired
+    private ItemDao itemDao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private LocalDateTime cursorStart;
+    private long cursorId;
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Long.class) == 0) {
+            jdbcTemplate.queryForList("SELECT create_bookings_partition((DATE '2040-01-01' + m * INTERVAL '1 month')::date) "
+                    + "FROM generate_series(0, 5) m");
+            jdbcTemplate.update("INSERT INTO users (user_name, user_email) SELECT 'owner' || n, 'owner' || n "
+                    + "|| '@example.com' FROM generate_series(1, ?) n", OWNERS);
+            jdbcTemplate.update("INSERT INTO items (item_name, description, is_available, owner_id) "
+                    + "SELECT 'item', 'item', true, user_id FROM users");
+            jdbcTemplate.update("INSERT INTO bookings (start_time, end_time, item_id, booker_id, status, owner_id) "
+                    + "SELECT TIMESTAMP '2040-01-01' + n * INTERVAL '6 hours', "
+                    + "TIMESTAMP '2040-01-01' + n * INTERVAL '6 hours' + INTERVAL '1 hour', "
+                    + "i.item_id, i.owner_id, 'APPROVED', i.owner_id "
+                    + "FROM items i CROSS JOIN generate_series(0, ?) n", BOOKINGS_PER_OWNER - 1);
+            jdbcTemplate.execute("ANALYZE");
+        }
+        ownerId = jdbcTemplate.queryForObject("SELECT MIN(user_id) FROM users", Long.class);
+        Map<String, Object> cursor = jdbcTemplate.queryForMap("SELECT start_time, booking_id FROM bookings "
+                + "WHERE owner_id = ? ORDER BY start_time DESC, booking_id DESC OFFSET ? LIMIT 1", ownerId, DEPTH);
+        cursorStart = ((Timestamp) cursor.get("start_time")).toLocalDateTime();
+        cursorId = ((Number) cursor.get("booking_id")).longValue();
+    }
+
+    @Test
+    void deepOwnerPageReadsOnlyItsRowsFromIndex() {
+        assertReadsOnlyPage(() -> bookingDao.findOwnerBookings(ownerId, cursorStart, cursorId, PAGE), "owner");
+        assertReadsOnlyPage(() -> bookingDao.findOwnerBookingsByStatus(ownerId, BookingStatus.APPROVED, cursorStart,
+                cursorId, PAGE), "owner");
+    }
+
+    @Test
+    void deepBookerPageReadsOnlyItsRowsFromIndex() {
+        assertReadsOnlyPage(() -> bookingDao.findBookerBookings(ownerId, cursorStart, cursorId, PAGE), "booker");
+    }
+
+    @Test
+    void trigramFilterReadsItemsThroughGinIndexes() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class) <= OWNERS) {
+            jdbcTemplate.update("INSERT INTO items (item_name, description, is_available, owner_id) "
+                    + "SELECT md5(n::text), md5((-n)::text), true, ? FROM generate_series(1, 100000) n", ownerId);
+            jdbcTemplate.execute("ANALYZE items");
+        }
+        STATEMENTS.clear();
+        itemDao.findAvailableByTrigramFilter("drill", 0, 20);
+        Assertions.assertThat(STATEMENTS).hasSize(1);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + STATEMENTS.get(0), String.class));
+
+        Assertions.assertThat(plan).as(plan)
+                .contains("items_name_trgm_idx")
+                .contains("items_description_trgm_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    private void assertReadsOnlyPage(Runnable query, String indexColumn) {
+        STATEMENTS.clear();
+        query.run();
+        Assertions.assertThat(STATEMENTS).hasSize(1);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (ANALYZE, COSTS OFF) "
+                + STATEMENTS.get(0), String.class));
+
+        Assertions.assertThat(plan).as(plan)
+                .contains("Index Scan Backward using bookings_p")
+                .contains(indexColumn + "_id_start_time_booking_id_idx")
+                .contains("start_time <=")
+                .doesNotContain("Sort Method");
+        for (Pattern rows : List.of(BOOKINGS_SCAN, REMOVED)) {
+            Matcher matcher = rows.matcher(plan);
+            while (matcher.find()) {
+                Assertions.assertThat(Integer.parseInt(matcher.group(1))).as(plan).isLessThanOrEqualTo(PAGE.max() + 1);
+            }
+        }
+    }
+
+    /**
+     * Подставляет встроенный сервер и запоминает SQL выполненных запросов с уже подставленными
+     * параметрами: {@code toString()} подготовленного запроса pgjdbc выводит их литералами.
+     */
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+        @Bean
+        @Primary
+        DataSource dataSource() throws IOException {
+            postgres = EmbeddedPostgres.builder().start();
+            DataSource target = postgres.getPostgresDatabase();
+            return proxy(DataSource.class, target, (method, result) ->
+                    method.equals("getConnection") ? proxy(Connection.class, (Connection) result, (name, statement) ->
+                            name.equals("prepareStatement") ? proxy(PreparedStatement.class,
+                                    (PreparedStatement) statement, (call, resultSet) -> {
+                                        if (call.equals("executeQuery")) {
+                                            STATEMENTS.add(statement.toString());
+                                        }
+                                        return resultSet;
+                                    }) : statement) : result);
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        try {
+                            return mapper.map(method.getName(), method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper {
+        Object map(String method, Object result);
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.item.dao.ArchivedCommentDao;
+import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+import ru.practicum.shareit.user.dao.UserDao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверяет планы H2 для запросов DAO: каждая таблица читается поиском по индексу, а не целиком.
+ * Исключение — поиск по подстроке в вещах, который в PostgreSQL обслуживают триграммные индексы.
+ */
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanIntegrationTest$RecordingInspector")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanIntegrationTest {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final Limit PAGE = Limit.of(20);
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* PUBLIC\\.([A-Za-z0-9_.]+)(: .*)? \\*/");
+
+    private final BookingDao bookingDao;
+    private final ArchivedBookingDao archivedBookingDao;
+    private final ItemDao itemDao;
+    private final CommentDao commentDao;
+    private final ArchivedCommentDao archivedCommentDao;
+    private final ItemRequestDao requestDao;
+    private final UserDao userDao;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<String> failures = new ArrayList<>();
+    private Map<String, String> leadingColumns;
+
+    @AfterEach
+    void reportFailures() {
+        Assertions.assertThat(failures).isEmpty();
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        assertIndexed("findBookerBookings", () -> bookingDao.findBookerBookings(1L, NOW, 1L, PAGE));
+        assertIndexed("findBookerBookingsByStatus", () ->
+                bookingDao.findBookerBookingsByStatus(1L, BookingStatus.WAITING, NOW, 1L, PAGE));
+        assertIndexed("findBookerFutureBookings", () -> bookingDao.findBookerFutureBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findBookerPastBookings", () -> bookingDao.findBookerPastBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findBookerCurrentBookings", () ->
+                bookingDao.findBookerCurrentBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findOwnerBookings", () -> bookingDao.findOwnerBookings(1L, NOW, 1L, PAGE));
+        assertIndexed("findOwnerBookingsByStatus", () ->
+                bookingDao.findOwnerBookingsByStatus(1L, BookingStatus.WAITING, NOW, 1L, PAGE));
+        assertIndexed("findOwnerFutureBookings", () -> bookingDao.findOwnerFutureBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findOwnerPastBookings", () -> bookingDao.findOwnerPastBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findOwnerCurrentBookings", () -> bookingDao.findOwnerCurrentBookings(1L, NOW, NOW, 1L, PAGE));
+        assertIndexed("findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc", () ->
+                bookingDao.findTopByStatusNotLikeAndBookerIdAndItemIdOrderByEndAsc(BookingStatus.REJECTED, 1L, 1L));
+        assertIndexed("findByItemIdAndItemOwnerIdAndStartIsAfterAndStatusIsNot", () ->
+                bookingDao.findByItemIdAndItemOwnerIdAndStartIsAfterAndStatusIsNot(1L, 1L, NOW, BookingStatus.REJECTED));
+        assertIndexed("findByItemIdAndItemOwnerIdAndStartIsBeforeAndStatusIsNot", () ->
+                bookingDao.findByItemIdAndItemOwnerIdAndStartIsBeforeAndStatusIsNot(1L, 1L, NOW, BookingStatus.REJECTED));
+        assertIndexed("findByItemIdAndStatusIn", () ->
+                bookingDao.findByItemIdAndStatusIn(1L, BookingAvailability.OCCUPYING));
+        assertIndexed("findDecisionViews", () -> bookingDao.findDecisionViews(Set.of(1L, 2L)));
+        assertIndexed("findOutputByIdIn", () -> bookingDao.findOutputByIdIn(Set.of(1L, 2L)));
+        assertIndexed("updateStatusIfChanged", () ->
+                bookingDao.updateStatusIfChanged(Set.of(1L, 2L), BookingStatus.APPROVED));
+        assertIndexed("findStale", () -> bookingDao.findStale(BookingStatus.WAITING, NOW, PAGE));
+        assertIndexed("updateStatus", () ->
+                bookingDao.updateStatus(Set.of(1L, 2L), BookingStatus.WAITING, BookingStatus.REJECTED));
+        assertIndexed("findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore", () ->
+                bookingDao.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(1L, 1L, BookingStatus.APPROVED,
+                        NOW));
+        assertIndexed("findLastAndNextApproved", () -> bookingDao.findLastAndNextApproved(List.of(1L, 2L), NOW));
+        assertIndexed("findEndedBefore", () -> bookingDao.findEndedBefore(NOW, PAGE));
+        assertIndexed("copyToArchive", () -> bookingDao.copyToArchive(Set.of(1L, 2L), NOW, NOW));
+        assertIndexed("deleteStartedBefore", () -> bookingDao.deleteStartedBefore(Set.of(1L, 2L), NOW));
+    }
+
+    @Test
+    void archivedBookingQueriesUseIndexes() {
+        assertIndexed("archived findBookerBookings", () -> archivedBookingDao.findBookerBookings(1L, NOW, 1L, PAGE));
+        assertIndexed("archived findBookerBookingsByStatus", () ->
+                archivedBookingDao.findBookerBookingsByStatus(1L, BookingStatus.REJECTED, NOW, 1L, PAGE));
+        assertIndexed("archived findOwnerBookings", () -> archivedBookingDao.findOwnerBookings(1L, NOW, 1L, PAGE));
+        assertIndexed("archived findOwnerBookingsByStatus", () ->
+                archivedBookingDao.findOwnerBookingsByStatus(1L, BookingStatus.REJECTED, NOW, 1L, PAGE));
+        assertIndexed("existsByBookerIdAndItemIdAndStatus", () ->
+                archivedBookingDao.existsByBookerIdAndItemIdAndStatus(1L, 1L, BookingStatus.APPROVED));
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        assertIndexed("existsByOwnerId", () -> itemDao.existsByOwnerId(1L));
+        assertIndexed("findAvailableFreeBetween", () ->
+                itemDao.findAvailableFreeBetween("text", NOW, NOW.plusDays(1), 0, PAGE), "ITEMS");
+        assertIndexed("findAllByOwnerId", () -> itemDao.findAllByOwnerId(1L));
+        assertIndexed("findByOwnerIdOrderById", () -> itemDao.findByOwnerIdOrderById(1L));
+        assertIndexed("findByRequestId", () -> itemDao.findByRequestId(1L));
+        assertIndexed("findByRequestIdIn", () -> itemDao.findByRequestIdIn(List.of(1L, 2L)));
+        assertIndexed("findByAvailableTrueAndIdGreaterThanOrderById", () ->
+                itemDao.findByAvailableTrueAndIdGreaterThanOrderById(0L, PAGE));
+    }
+
+    @Test
+    void commentQueriesUseIndexes() {
+        assertIndexed("findByItemId", () -> commentDao.findByItemId(1L));
+        assertIndexed("findByItemIdIn", () -> commentDao.findByItemIdIn(List.of(1L, 2L)));
+        assertIndexed("findAllByItemIdIn", () -> commentDao.findAllByItemIdIn(List.of(1L, 2L)));
+        assertIndexed("findAllByItemId", () -> commentDao.findAllByItemId(1L));
+        assertIndexed("findIdsCreatedBefore", () -> commentDao.findIdsCreatedBefore(NOW, PAGE));
+        assertIndexed("comments copyToArchive", () -> commentDao.copyToArchive(Set.of(1L, 2L), NOW));
+        assertIndexed("deleteByIdIn", () -> commentDao.deleteByIdIn(Set.of(1L, 2L)));
+        assertIndexed("archived findAllByItemId", () -> archivedCommentDao.findAllByItemId(1L));
+        assertIndexed("archived findAllByItemIdIn", () -> archivedCommentDao.findAllByItemIdIn(List.of(1L, 2L)));
+    }
+
+    @Test
+    void requestAndUserQueriesUseIndexes() {
+        assertIndexed("findAllByRequesterId", () -> requestDao.findAllByRequesterId(1L));
+        assertIndexed("findAllByRequesterIdNot", () -> requestDao.findAllByRequesterIdNot(1L,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "created"))));
+        assertIndexed("findIdsAfter", () -> userDao.findIdsAfter(0L, PAGE));
+    }
+
+    private void assertIndexed(String name, Runnable query, String... scannedTables) {
+        STATEMENTS.clear();
+        query.run();
+        Assertions.assertThat(STATEMENTS).as(name).isNotEmpty();
+        for (String sql : List.copyOf(STATEMENTS)) {
+            String plan = String.join("\n", jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                    (rs, rowNum) -> rs.getString(1)));
+            for (String line : plan.split("\n")) {
+                Matcher access = TABLE_ACCESS.matcher(line.trim());
+                if (access.matches() && !isIndexed(access, plan, scannedTables)) {
+                    failures.add(name + ": " + line.trim() + "\n" + plan);
+                }
+            }
+        }
+    }
+
+    /**
+     * Доступ к таблице считается индексным, если у использованного индекса есть условие
+     * (или он обходится ради сортировки с лимитом) и в миграциях объявлен индекс
+     * с тем же первым столбцом. Индексы, которые H2 сам создаёт для внешних ключей,
+     * засчитываются только при таком объявленном двойнике: в PostgreSQL их нет.
+     */
+    private boolean isIndexed(Matcher access, String plan, String... scannedTables) {
+        String index = access.group(1);
+        if (index.endsWith(".tableScan")) {
+            return List.of(scannedTables).contains(index.substring(0, index.indexOf('.')));
+        }
+        boolean lookup = access.group(2) != null || plan.contains("/* index sorted */");
+        return lookup && declaredLeadingColumns().contains(leadingColumns().get(index));
+    }
+
+    private Map<String, String> leadingColumns() {
+        if (leadingColumns == null) {
+            leadingColumns = new HashMap<>();
+            jdbcTemplate.query("""
+                    SELECT INDEX_NAME, TABLE_NAME, COLUMN_NAME
+                    FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+                    WHERE TABLE_SCHEMA = 'PUBLIC' AND ORDINAL_POSITION = 1
+                    """, rs -> {
+                leadingColumns.put(rs.getString("INDEX_NAME"),
+                        rs.getString("TABLE_NAME") + "." + rs.getString("COLUMN_NAME"));
+            });
+        }
+        return leadingColumns;
+    }
+
+    private Set<String> declaredLeadingColumns() {
+        Set<String> declared = new HashSet<>();
+        leadingColumns().forEach((index, column) -> {
+            if (index.startsWith("PRIMARY_KEY") || index.endsWith("_IDX")) {
+                declared.add(column);
+            }
+        });
+        return declared;
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.threads.PinnedThreadMonitor;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Пропускная способность сервера на ядро с Tomcat на обычных и на виртуальных потоках: {@value CONCURRENCY}
+ * клиентов без пауз читают первую страницу бронирований. Делитель — процессорное время всего процесса,
+ * поэтому в числе учтены и клиенты, одинаковые в обоих режимах. В режиме виртуальных потоков включён
+ * {@link PinnedThreadMonitor}, и места закрепления попадают в лог. Режимы чередуются {@value ROUNDS} раза:
+ * JIT-код общий для обоих контекстов, так что сравнивать стоит последний круг.
+ * Запуск: {@code mvn test -Dtest=VirtualThreadsBenchmarkTest -Dshareit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class VirtualThreadsBenchmarkTest {
+    private static final int ROUNDS = 3;
+    private static final int CONCURRENCY = 400;
+    private static final int BOOKINGS = 200;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    @Test
+    void compareThroughputPerCore() throws Exception {
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                run(round, virtual);
+            }
+        }
+    }
+
+    private void run(int round, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        PinnedThreadMonitor.PROPERTY + "=true",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + virtual + ";MODE=PostgreSQL",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN")
+                .run()) {
+            long bookerId = seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/bookings?state=ALL&size=20"))
+                    .header(Constants.HEADER, String.valueOf(bookerId))
+                    .build();
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build()) {
+                load(client, request, WARM_UP);
+
+                OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+                long cpuBefore = os.getProcessCpuTime();
+                long started = System.nanoTime();
+                long[] latencies = load(client, request, MEASURE);
+                double seconds = (System.nanoTime() - started) / 1e9;
+                double cpuSeconds = (os.getProcessCpuTime() - cpuBefore) / 1e9;
+
+                Timer pinned = context.getBean(MeterRegistry.class).find("shareit.threads.pinned").timer();
+                System.out.printf("round=%d virtual=%s clients=%d cores=%d requests=%d rps=%.0f rps/core=%.0f "
+                                + "requests/cpu-second=%.0f p50=%.1f ms p99=%.1f ms pinned=%s%n",
+                        round, virtual, CONCURRENCY, os.getAvailableProcessors(), latencies.length, latencies.length / seconds,
+                        latencies.length / seconds / os.getAvailableProcessors(), latencies.length / cpuSeconds,
+                        percentile(latencies, 0.50), percentile(latencies, 0.99),
+                        pinned != null ? pinned.count() : "-");
+            }
+        }
+    }
+
+    private static long seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (user_name, user_email) VALUES ('owner', 'owner@example.com'), "
+                + "('booker', 'booker@example.com')");
+        long ownerId = jdbc.queryForObject("SELECT user_id FROM users WHERE user_name = 'owner'", Long.class);
+        long bookerId = jdbc.queryForObject("SELECT user_id FROM users WHERE user_name = 'booker'", Long.class);
+        jdbc.update("INSERT INTO items (item_name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                "table", "black", true, ownerId);
+        long itemId = jdbc.queryForObject("SELECT item_id FROM items", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Object[]{now.minusDays(2L * i + 2), now.minusDays(2L * i + 1), itemId, bookerId,
+                    "APPROVED"});
+        }
+        jdbc.batchUpdate("INSERT INTO bookings (start_time, end_time, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?)", bookings);
+        return bookerId;
+    }
+
+    private static long[] load(HttpClient client, HttpRequest request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> workers = new ArrayList<>(CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        latencies.add(System.nanoTime() - started);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            all.addAll(worker.get());
+        }
+        return all.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static double percentile(long[] nanos, double quantile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * quantile) - 1] / 1_000_000.0;
+    }
+}
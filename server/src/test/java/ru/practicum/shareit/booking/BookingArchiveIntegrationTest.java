@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.archive.BookingArchiveScheduler;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
+import ru.practicum.shareit.item.dto.ItemDtoByOwner;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional
+@SpringBootTest(properties = {
+        "shareit.archive.enabled=true",
+        "shareit.archive.after-months=12",
+        "shareit.archive.batch-size=1",
+        "shareit.archive.max-batches=10",
+        "shareit.archive.comments=true"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingArchiveIntegrationTest {
+    private final EntityManager em;
+
+    private final BookingArchiveScheduler scheduler;
+
+    private final BookingService bookingService;
+
+    private final ItemService itemService;
+
+    private final BookingDao bookingDao;
+
+    private final ArchivedBookingDao archivedBookingDao;
+
+    private final CommentDao commentDao;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item oldItem;
+    private Booking oldApproved;
+    private Booking oldRejected;
+    private Booking recent;
+    private Booking future;
+    private Comment recentComment;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "owner", "owner@example.com");
+        em.persist(owner);
+
+        booker = new User(null, "booker", "booker@example.com");
+        em.persist(booker);
+
+        item = new Item(null, "table", "black", true, owner, null);
+        em.persist(item);
+
+        oldItem = new Item(null, "chair", "white", true, owner, null);
+        em.persist(oldItem);
+
+        oldApproved = new Booking(0, oldItem, now.minusMonths(14), now.minusMonths(14).plusDays(1), booker,
+                BookingStatus.APPROVED);
+        oldRejected = new Booking(0, item, now.minusMonths(13), now.minusMonths(13).plusDays(1), booker,
+                BookingStatus.REJECTED);
+        recent = new Booking(0, item, now.minusDays(3), now.minusDays(2), booker, BookingStatus.APPROVED);
+        future = new Booking(0, item, now.plusDays(1), now.plusDays(2), booker, BookingStatus.WAITING);
+        List.of(oldApproved, oldRejected, recent, future).forEach(em::persist);
+
+        em.persist(new Comment(null, "old", booker, item, now.minusMonths(13)));
+        recentComment = new Comment(null, "new", booker, item, now.minusDays(1));
+        em.persist(recentComment);
+        em.flush();
+    }
+
+    @Test
+    void archive_MovesBookingsEndedBeforeCutoffAndOldComments() {
+        double archivedBefore = meterRegistry.counter("shareit.archive.bookings").count();
+
+        int archived = scheduler.archive();
+
+        Assertions.assertThat(archived).isEqualTo(2);
+        Assertions.assertThat(bookingDao.findAll()).extracting(Booking::getId)
+                .containsExactlyInAnyOrder(recent.getId(), future.getId());
+        Assertions.assertThat(archivedBookingDao.findAll()).extracting(b -> b.getId())
+                .containsExactlyInAnyOrder(oldApproved.getId(), oldRejected.getId());
+        Assertions.assertThat(commentDao.findAll()).extracting(Comment::getId)
+                .containsExactly(recentComment.getId());
+        Assertions.assertThat(meterRegistry.counter("shareit.archive.bookings").count() - archivedBefore)
+                .isEqualTo(2);
+        Assertions.assertThat(scheduler.archive()).isZero();
+    }
+
+    @Test
+    void findItem_ShowsArchivedCommentsOnlyWhenAsked() {
+        scheduler.archive();
+
+        Assertions.assertThat(itemService.findItemById(owner.getId(), item.getId(), false).getComments())
+                .extracting(CommentInfoDto::getText).containsExactly("new");
+        Assertions.assertThat(itemService.findItemById(owner.getId(), item.getId(), true).getComments())
+                .extracting(CommentInfoDto::getText, CommentInfoDto::getAuthorName)
+                .containsExactly(Assertions.tuple("old", "booker"), Assertions.tuple("new", "booker"));
+        Assertions.assertThat(itemService.findAll(owner.getId(), true))
+                .filteredOn(dto -> dto.getId().equals(item.getId()))
+                .flatExtracting(ItemDtoByOwner::getComments)
+                .extracting(CommentInfoDto::getText).containsExactly("old", "new");
+    }
+
+    @Test
+    void findPast_UnionsArchiveOnlyWhenAsked() {
+        scheduler.archive();
+
+        List<BookingOutputDto> hot = bookingService.findAllUsersBooking(booker.getId(), "PAST", null, null, 20, false);
+        List<BookingOutputDto> all = bookingService.findAllUsersBooking(booker.getId(), "PAST", null, null, 20, true);
+
+        Assertions.assertThat(hot).extracting(BookingOutputDto::getId).containsExactly(recent.getId());
+        Assertions.assertThat(all).extracting(BookingOutputDto::getId)
+                .containsExactly(recent.getId(), oldRejected.getId(), oldApproved.getId());
+    }
+
+    @Test
+    void findAll_PagesAcrossHotAndArchivedBookings() {
+        scheduler.archive();
+
+        List<BookingOutputDto> firstPage = bookingService.findAllBookingsForItems(owner.getId(), "ALL", null, null, 3,
+                true);
+        BookingOutputDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingOutputDto> secondPage = bookingService.findAllBookingsForItems(owner.getId(), "ALL",
+                last.getStart(), last.getId(), 3, true);
+
+        Assertions.assertThat(firstPage).extracting(BookingOutputDto::getId)
+                .containsExactly(future.getId(), recent.getId(), oldRejected.getId());
+        Assertions.assertThat(secondPage).extracting(BookingOutputDto::getId).containsExactly(oldApproved.getId());
+    }
+
+    @Test
+    void findAll_ClampsMergedPageToMaxPageSize() {
+        for (int i = 0; i < BookingService.MAX_PAGE_SIZE; i++) {
+            em.persist(new Booking(0, oldItem, now.minusMonths(24).plusDays(i), now.minusMonths(24).plusDays(i)
+                    .plusHours(1), booker, BookingStatus.APPROVED));
+            em.persist(new Booking(0, oldItem, now.minusDays(100).plusHours(i), now.minusDays(100).plusHours(i)
+                    .plusMinutes(30), booker, BookingStatus.APPROVED));
+        }
+        em.flush();
+        while (scheduler.archive() > 0) {
+            em.clear();
+        }
+
+        List<BookingOutputDto> page = bookingService.findAllUsersBooking(booker.getId(), "ALL", null, null,
+                BookingService.MAX_PAGE_SIZE * 10, true);
+
+        Assertions.assertThat(archivedBookingDao.count()).isGreaterThanOrEqualTo(BookingService.MAX_PAGE_SIZE);
+        Assertions.assertThat(bookingDao.count()).isGreaterThanOrEqualTo(BookingService.MAX_PAGE_SIZE);
+        Assertions.assertThat(page).hasSize(BookingService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void addComment_AcceptsBookerWhoseBookingIsArchived() {
+        scheduler.archive();
+
+        Assertions.assertThat(itemService.addComment(new CommentDto(null, "still good"), booker.getId(),
+                oldItem.getId()).getText()).isEqualTo("still good");
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityTest {
+    private static final long ITEM_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 10, 0, 0);
+    private static final LocalDateTime END = START.plusDays(2);
+
+    @Mock
+    private BookingDao bookingDao;
+
+    @Test
+    void bookingCommittedDuringCalendarLoadIsNotLostFromCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(bookingDao.findByItemIdAndStatusIn(eq(ITEM_ID), eq(BookingAvailability.OCCUPYING)))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    committed.await(10, TimeUnit.SECONDS);
+                    return List.of();
+                })
+                .thenReturn(List.of(view(7L, START, END)));
+        BookingAvailability availability = new BookingAvailability(bookingDao, 100, Duration.ofMinutes(10));
+
+        CompletableFuture<?> calendar = CompletableFuture.runAsync(() ->
+                availability.busy(ITEM_ID, START.minusDays(5), END.plusDays(5)));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        CompletableFuture<?> creation = CompletableFuture.runAsync(() ->
+                availability.onBookingChanged(new BookingChangedEvent(7L, ITEM_ID, START, END,
+                        BookingStatus.WAITING)));
+        Thread.sleep(200);
+        committed.countDown();
+        calendar.get(10, TimeUnit.SECONDS);
+        creation.get(10, TimeUnit.SECONDS);
+
+        assertTrue(availability.overlaps(ITEM_ID, START.plusDays(1), END.plusDays(1)));
+        assertEquals(1, availability.busy(ITEM_ID, START, END).size());
+    }
+
+    private static BookingIntervalView view(long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.NotValidParameterException;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class BookingConcurrencyIntegrationTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingDao bookingDao;
+    @Autowired
+    private ItemDao itemDao;
+    @Autowired
+    private UserDao userDao;
+
+    private final List<UserDto> bookers = new ArrayList<>();
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto(0, "owner", "concurrent-owner@example.com"));
+        item = itemService.createItem(new ItemDto(null, "drill", "hot item", true, null), owner.getId());
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.createUser(new UserDto(0, "booker" + i, "concurrent-booker" + i + "@example.com")));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingDao.deleteAllById(bookingDao.findByItemIdAndStatusIn(item.getId(), EnumSet.allOf(BookingStatus.class))
+                .stream()
+                .map(BookingIntervalView::getId)
+                .toList());
+        itemDao.deleteById(item.getId());
+        bookers.forEach(booker -> userDao.deleteById(booker.getId()));
+        userDao.deleteById(owner.getId());
+    }
+
+    @Test
+    void concurrentApprovals_ApproveOnce() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime roundStart = start.plusDays(round * 2L);
+            BookingOutputDto waiting = bookingService.createBooking(new BookingDto(0, item.getId(), roundStart,
+                    roundStart.plusDays(1)), bookers.get(0).getId());
+            AtomicInteger approved = new AtomicInteger();
+
+            runConcurrently(thread -> {
+                try {
+                    bookingService.confirmBookingByOwner(owner.getId(), waiting.getId(), true);
+                    approved.incrementAndGet();
+                } catch (NotValidParameterException | BookingConflictException e) {
+                    // проиграл гонку
+                }
+                return null;
+            });
+
+            Assertions.assertThat(approved.get()).isEqualTo(1);
+            Assertions.assertThat(bookingDao.findById(waiting.getId()).orElseThrow().getStatus())
+                    .isEqualTo(BookingStatus.APPROVED);
+        }
+    }
+
+    @Test
+    void concurrentCreation_AcceptsOneOverlappingBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime roundStart = start.plusDays(round * 2L);
+            List<BookingOutputDto> created = new ArrayList<>();
+
+            runConcurrently(thread -> {
+                BookingDto dto = new BookingDto(0, item.getId(), roundStart.plusHours(thread),
+                        roundStart.plusDays(1).plusHours(thread));
+                try {
+                    BookingOutputDto booking = bookingService.createBooking(dto, bookers.get(thread).getId());
+                    synchronized (created) {
+                        created.add(booking);
+                    }
+                } catch (BookingConflictException e) {
+                    // проиграл гонку
+                }
+                return null;
+            });
+
+            Assertions.assertThat(created).hasSize(1);
+        }
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    ready.countDown();
+                    go.await();
+                    return task.run(thread);
+                }));
+            }
+            ready.await();
+            go.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        Void run(int thread) throws Exception;
+    }
+}
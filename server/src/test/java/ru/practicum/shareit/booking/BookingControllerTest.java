@@ -15,6 +15,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -23,9 +24,12 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -108,6 +112,22 @@ public class BookingControllerTest {
                 );
     }
 
+    @Test
+    void succeedConfirmBookingsByOwner() throws Exception {
+        bookingOutputDto.setStatus(BookingStatus.APPROVED);
+        when(bookingService.confirmBookingsByOwner(anyLong(), any())).thenReturn(List.of(bookingOutputDto));
+
+        mockMvc.perform(patch(URL + "/batch")
+                        .header(Constants.HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BookingBatchDto(Set.of(2L), Set.of()))))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].id", Matchers.is(bookingOutputDto.getId()), Long.class),
+                        jsonPath("$[0].status", Matchers.is(BookingStatus.APPROVED.toString()))
+                );
+    }
+
     @Test
     void succeedFindBookingById() throws Exception {
         when(bookingService.findBookingById(anyLong(), anyLong())).thenReturn(bookingOutputDto);
@@ -125,7 +145,7 @@ public class BookingControllerTest {
     @Test
     void succeedFindAllUsersBooking() throws Exception {
         //EmptyList
-        when(bookingService.findAllUsersBooking(anyLong(), any()))
+        when(bookingService.findAllUsersBooking(anyLong(), any(), any(), any(), anyInt(), anyBoolean()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get(URL)
@@ -142,7 +162,7 @@ public class BookingControllerTest {
     @Test
     void succeedFindAllBookingsForItems() throws Exception {
         //EmptyList
-        when(bookingService.findAllBookingsForItems(anyLong(), any()))
+        when(bookingService.findAllBookingsForItems(anyLong(), any(), any(), any(), anyInt(), anyBoolean()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get(URL + "/owner")
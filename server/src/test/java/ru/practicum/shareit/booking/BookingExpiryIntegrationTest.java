@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.expiry.BookingExpiryScheduler;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional
+@SpringBootTest(properties = {
+        "shareit.bookings.expiry.enabled=true",
+        "shareit.bookings.expiry.interval=PT1H",
+        "shareit.bookings.expiry.batch-size=2",
+        "shareit.bookings.expiry.max-batches=1"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingExpiryIntegrationTest {
+    private final EntityManager em;
+
+    private final BookingExpiryScheduler scheduler;
+
+    private final BookingDao bookingDao;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private List<Booking> stale;
+    private Booking future;
+    private Booking approved;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User(null, "owner", "owner@example.com");
+        em.persist(owner);
+
+        User booker = new User(null, "booker", "booker@example.com");
+        em.persist(booker);
+
+        Item item = new Item(null, "table", "black", true, owner, null);
+        em.persist(item);
+
+        stale = List.of(
+                new Booking(0, item, now.minusDays(6), now.minusDays(5), booker, BookingStatus.WAITING),
+                new Booking(0, item, now.minusDays(4), now.minusDays(3), booker, BookingStatus.WAITING),
+                new Booking(0, item, now.minusHours(2), now.plusHours(2), booker, BookingStatus.WAITING));
+        stale.forEach(em::persist);
+
+        future = new Booking(0, item, now.plusDays(1), now.plusDays(2), booker, BookingStatus.WAITING);
+        em.persist(future);
+
+        approved = new Booking(0, item, now.minusDays(2), now.minusDays(1), booker, BookingStatus.APPROVED);
+        em.persist(approved);
+        em.flush();
+    }
+
+    @Test
+    void expireStale_RejectsStartedWaitingBookingsInBoundedBatches() {
+        double expiredBefore = meterRegistry.counter("shareit.bookings.expired").count();
+
+        int firstRun = scheduler.expireStale();
+        int secondRun = scheduler.expireStale();
+        int thirdRun = scheduler.expireStale();
+
+        Assertions.assertThat(List.of(firstRun, secondRun, thirdRun)).containsExactly(2, 1, 0);
+        for (Booking booking : stale) {
+            Assertions.assertThat(status(booking)).isEqualTo(BookingStatus.REJECTED);
+        }
+        Assertions.assertThat(status(future)).isEqualTo(BookingStatus.WAITING);
+        Assertions.assertThat(status(approved)).isEqualTo(BookingStatus.APPROVED);
+        Assertions.assertThat(meterRegistry.counter("shareit.bookings.expired").count() - expiredBefore)
+                .isEqualTo(3);
+    }
+
+    @Test
+    void expireStale_BumpsVersionSoConcurrentApprovalConflicts() {
+        scheduler.expireStale();
+
+        Booking expired = bookingDao.findById(stale.get(0).getId()).orElseThrow();
+
+        Assertions.assertThat(expired.getVersion()).isEqualTo(stale.get(0).getVersion() + 1);
+    }
+
+    private BookingStatus status(Booking booking) {
+        return bookingDao.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
@@ -3,21 +3,31 @@ package ru.practicum.shareit.booking;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 @Transactional
@@ -63,7 +73,7 @@ public class BookingIntegrationTest {
         booking2 = new Booking(0, item1, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), booker, BookingStatus.WAITING);
         em.persist(booking2);
 
-        booking3 = new Booking(0, item1, LocalDateTime.now().plusDays(1), LocalDateTime.now().minusDays(1), booker, BookingStatus.REJECTED);
+        booking3 = new Booking(0, item1, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), booker, BookingStatus.REJECTED);
         em.persist(booking3);
 
         booking4 = new Booking(0, item1, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), booker, BookingStatus.CANCELED);
@@ -76,7 +86,7 @@ public class BookingIntegrationTest {
         Long userId = booker.getId();
         Long itemId = item1.getId();
 
-        BookingDto newBooking = new BookingDto(10L, itemId, now.plusDays(2), now.plusDays(4));
+        BookingDto newBooking = new BookingDto(10L, itemId, now.plusDays(3), now.plusDays(5));
 
         BookingOutputDto created = bookingService.createBooking(newBooking, userId);
 
@@ -87,6 +97,14 @@ public class BookingIntegrationTest {
         Assertions.assertThat(retrievedBooking.getItem().getId()).isEqualTo(itemId);
     }
 
+    @Test
+    void createBooking_Overlapping() {
+        BookingDto overlapping = new BookingDto(0L, item1.getId(), now.plusDays(1).plusHours(1), now.plusDays(3));
+
+        Assertions.assertThatThrownBy(() -> bookingService.createBooking(overlapping, booker.getId()))
+                .isInstanceOf(BookingConflictException.class);
+    }
+
     @Test
     void approve_Normal() {
         Long userId = owner.getId();
@@ -101,6 +119,87 @@ public class BookingIntegrationTest {
                 .hasFieldOrPropertyWithValue("status", BookingStatus.APPROVED);
     }
 
+    @Test
+    void confirmBatch_Normal() {
+        List<BookingOutputDto> confirmed = bookingService.confirmBookingsByOwner(owner.getId(),
+                new BookingBatchDto(Set.of(booking2.getId()), Set.of(booking1.getId())));
+
+        Assertions.assertThat(confirmed).extracting(BookingOutputDto::getId)
+                .containsExactly(booking1.getId(), booking2.getId());
+        Assertions.assertThat(confirmed).extracting(BookingOutputDto::getStatus)
+                .containsExactly(BookingStatus.REJECTED, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void confirmBatch_ApprovesBookingFreedByRejectionInSameBatch() {
+        Booking rejected = new Booking(0, item1, now.plusDays(1).plusHours(1), now.plusDays(3), booker,
+                BookingStatus.REJECTED);
+        em.persist(rejected);
+        em.flush();
+
+        List<BookingOutputDto> confirmed = bookingService.confirmBookingsByOwner(owner.getId(),
+                new BookingBatchDto(Set.of(rejected.getId()), Set.of(booking2.getId())));
+
+        Assertions.assertThat(confirmed).extracting(BookingOutputDto::getId, BookingOutputDto::getStatus)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(booking2.getId(), BookingStatus.REJECTED),
+                        Assertions.tuple(rejected.getId(), BookingStatus.APPROVED));
+    }
+
+    @Test
+    void confirmBatch_ConstantStatementCount() {
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Booking(0, item1, now.plusDays(10 + i), now.plusDays(10 + i).plusHours(1), booker,
+                    BookingStatus.WAITING));
+        }
+        em.flush();
+        Set<Long> waiting = bookingDao.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+
+        long statements = countStatements(() -> bookingService.confirmBookingsByOwner(owner.getId(),
+                new BookingBatchDto(waiting, Set.of(booking1.getId()))));
+
+        Assertions.assertThat(statements).isLessThanOrEqualTo(4);
+        Assertions.assertThat(bookingDao.findAllById(waiting)).extracting(Booking::getStatus)
+                .containsOnly(BookingStatus.APPROVED);
+    }
+
+    @Test
+    void confirmBatch_NotOwner() {
+        BookingBatchDto batch = new BookingBatchDto(Set.of(booking2.getId()), null);
+
+        Assertions.assertThatThrownBy(() -> bookingService.confirmBookingsByOwner(booker.getId(), batch))
+                .isInstanceOf(NotValidParameterException.class);
+        Assertions.assertThat(bookingDao.findById(booking2.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void confirmBatch_UnknownBooking() {
+        BookingBatchDto batch = new BookingBatchDto(Set.of(booking2.getId(), Long.MAX_VALUE), null);
+
+        Assertions.assertThatThrownBy(() -> bookingService.confirmBookingsByOwner(owner.getId(), batch))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void confirmBatch_SameBookingApprovedAndRejected() {
+        BookingBatchDto batch = new BookingBatchDto(Set.of(booking2.getId()), Set.of(booking2.getId()));
+
+        Assertions.assertThatThrownBy(() -> bookingService.confirmBookingsByOwner(owner.getId(), batch))
+                .isInstanceOf(NotValidParameterException.class);
+    }
+
+    @Test
+    void confirmBatch_AlreadyApproved() {
+        BookingBatchDto batch = new BookingBatchDto(Set.of(booking1.getId(), booking2.getId()), null);
+
+        Assertions.assertThatThrownBy(() -> bookingService.confirmBookingsByOwner(owner.getId(), batch))
+                .isInstanceOf(NotValidParameterException.class);
+    }
+
     @Test
     void getBooking_Normal() {
         Long userId = booker.getId();
@@ -116,73 +215,151 @@ public class BookingIntegrationTest {
 
     @Test
     void getAllBookings_All() {
-        List<BookingOutputDto> list1 = bookingService.findAllUsersBooking(booker.getId(), "All");
+        List<BookingOutputDto> list1 = bookingService.findAllUsersBooking(booker.getId(), "All", null, null, 20, false);
         Assertions.assertThat(list1).isNotEmpty().hasSize(4);
     }
 
     @Test
     void getAllBookings_Past() {
-        List<BookingOutputDto> list2 = bookingService.findAllUsersBooking(booker.getId(), "Past");
+        List<BookingOutputDto> list2 = bookingService.findAllUsersBooking(booker.getId(), "Past", null, null, 20, false);
         Assertions.assertThat(list2).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookings_Future() {
-        List<BookingOutputDto> list3 = bookingService.findAllUsersBooking(booker.getId(), "Future");
-        Assertions.assertThat(list3).isNotEmpty().hasSize(2);
+        List<BookingOutputDto> list3 = bookingService.findAllUsersBooking(booker.getId(), "Future", null, null, 20, false);
+        Assertions.assertThat(list3).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookings_Current() {
-        List<BookingOutputDto> list4 = bookingService.findAllUsersBooking(booker.getId(), "Current");
+        List<BookingOutputDto> list4 = bookingService.findAllUsersBooking(booker.getId(), "Current", null, null, 20, false);
         Assertions.assertThat(list4).isNotEmpty().hasSize(2);
     }
 
     @Test
     void getAllBookings_Rejected() {
-        List<BookingOutputDto> list5 = bookingService.findAllUsersBooking(booker.getId(), "Rejected");
+        List<BookingOutputDto> list5 = bookingService.findAllUsersBooking(booker.getId(), "Rejected", null, null, 20, false);
         Assertions.assertThat(list5).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookings_Waiting() {
-        List<BookingOutputDto> list6 = bookingService.findAllUsersBooking(booker.getId(), "waiting");
+        List<BookingOutputDto> list6 = bookingService.findAllUsersBooking(booker.getId(), "waiting", null, null, 20, false);
         Assertions.assertThat(list6).isNotEmpty().hasSize(1);
     }
 
+    @Test
+    void getAllBookings_Paged() {
+        em.flush();
+        em.clear();
+        List<BookingOutputDto> firstPage = bookingService.findAllUsersBooking(booker.getId(), "All", null, null, 3, false);
+        BookingOutputDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingOutputDto> secondPage = bookingService.findAllUsersBooking(booker.getId(), "All", last.getStart(),
+                last.getId(), 3, false);
+
+        Assertions.assertThat(firstPage).hasSize(3);
+        Assertions.assertThat(secondPage).hasSize(1);
+        Assertions.assertThat(firstPage.get(0).getStart()).isAfterOrEqualTo(last.getStart());
+        Assertions.assertThat(secondPage.get(0).getStart()).isBeforeOrEqualTo(last.getStart());
+        Assertions.assertThat(firstPage).extracting(BookingOutputDto::getId)
+                .doesNotContain(secondPage.get(0).getId());
+    }
+
+    @Test
+    void getAllBookings_ConstantStatementCount() {
+        long fewBookings = countStatements(() ->
+                bookingService.findAllUsersBooking(booker.getId(), "All", null, null, 20, false));
+
+        for (int i = 0; i < 10; i++) {
+            User otherOwner = new User(null, "owner" + i, "owner" + i + "@example.com");
+            em.persist(otherOwner);
+            Item otherItem = new Item(null, "item" + i, "description", true, otherOwner, null);
+            em.persist(otherItem);
+            em.persist(new Booking(0, otherItem, now.minusDays(i + 2), now.minusDays(i + 1), booker,
+                    BookingStatus.APPROVED));
+        }
+        long manyBookings = countStatements(() ->
+                bookingService.findAllUsersBooking(booker.getId(), "All", null, null, 20, false));
+
+        Assertions.assertThat(manyBookings).isEqualTo(fewBookings);
+    }
+
+    @Test
+    void getAllBookingsForOwner_ConstantStatementCount() {
+        long fewBookings = countStatements(() ->
+                bookingService.findAllBookingsForItems(owner.getId(), "All", null, null, 20, false));
+
+        for (int i = 0; i < 10; i++) {
+            User otherBooker = new User(null, "booker" + i, "booker" + i + "@example.com");
+            em.persist(otherBooker);
+            em.persist(new Booking(0, item1, now.minusDays(i + 2), now.minusDays(i + 1), otherBooker,
+                    BookingStatus.APPROVED));
+        }
+        long manyBookings = countStatements(() ->
+                bookingService.findAllBookingsForItems(owner.getId(), "All", null, null, 20, false));
+
+        Assertions.assertThat(manyBookings).isEqualTo(fewBookings);
+    }
+
     @Test
     void getAllBookingsForOwner_All() {
-        List<BookingOutputDto> list1 = bookingService.findAllBookingsForItems(owner.getId(), "All");
+        List<BookingOutputDto> list1 = bookingService.findAllBookingsForItems(owner.getId(), "All", null, null, 20, false);
         Assertions.assertThat(list1).isNotEmpty().hasSize(4);
     }
 
     @Test
     void getAllBookingsForOwner_Past() {
-        List<BookingOutputDto> list2 = bookingService.findAllBookingsForItems(owner.getId(), "Past");
+        List<BookingOutputDto> list2 = bookingService.findAllBookingsForItems(owner.getId(), "Past", null, null, 20, false);
         Assertions.assertThat(list2).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookingsForOwner_Future() {
-        List<BookingOutputDto> list3 = bookingService.findAllBookingsForItems(owner.getId(), "Future");
-        Assertions.assertThat(list3).isNotEmpty().hasSize(2);
+        List<BookingOutputDto> list3 = bookingService.findAllBookingsForItems(owner.getId(), "Future", null, null, 20, false);
+        Assertions.assertThat(list3).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookingsForOwner_Current() {
-        List<BookingOutputDto> list4 = bookingService.findAllBookingsForItems(owner.getId(), "Current");
+        List<BookingOutputDto> list4 = bookingService.findAllBookingsForItems(owner.getId(), "Current", null, null, 20, false);
         Assertions.assertThat(list4).isNotEmpty().hasSize(2);
     }
 
     @Test
     void getAllBookingsForOwner_Rejected() {
-        List<BookingOutputDto> list5 = bookingService.findAllBookingsForItems(owner.getId(), "Rejected");
+        List<BookingOutputDto> list5 = bookingService.findAllBookingsForItems(owner.getId(), "Rejected", null, null, 20, false);
         Assertions.assertThat(list5).isNotEmpty().hasSize(1);
     }
 
     @Test
     void getAllBookingsForOwner_Waiting() {
-        List<BookingOutputDto> list6 = bookingService.findAllBookingsForItems(owner.getId(), "Waiting");
+        List<BookingOutputDto> list6 = bookingService.findAllBookingsForItems(owner.getId(), "Waiting", null, null, 20, false);
         Assertions.assertThat(list6).isNotEmpty().hasSize(1);
     }
+
+    @Test
+    void getAllBookingsForOwner_DoesNotLoadBookingEntities() {
+        em.flush();
+        em.clear();
+
+        List<BookingOutputDto> bookings = bookingService.findAllBookingsForItems(owner.getId(), "All", null, null,
+                20, false);
+
+        Assertions.assertThat(bookings).isNotEmpty();
+        Assertions.assertThat(bookings.get(0).getItem().getName()).isNotNull();
+        Assertions.assertThat(bookings.get(0).getBooker().getEmail()).isNotNull();
+        Assertions.assertThat(em.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+                        .map(key -> ((EntityKey) key).getEntityName()))
+                .doesNotContain(Booking.class.getName(), Item.class.getName());
+    }
+
+    private long countStatements(Runnable action) {
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
 }
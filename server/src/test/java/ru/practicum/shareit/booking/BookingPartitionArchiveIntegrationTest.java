@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.partition.BookingPartitionMaintainer;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Отсоединение старой месячной секции на встроенном PostgreSQL: её бронирования остаются
+ * доступны в выборках с {@code archived=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.postgresql.transactional-lock=false",
+        "shareit.search.engine=jpql",
+        "shareit.bookings.partitions.enabled=true",
+        "shareit.bookings.partitions.months-ahead=0",
+        "shareit.bookings.partitions.retention-months=12"
+})
+public class BookingPartitionArchiveIntegrationTest {
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 10, 12, 0);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private BookingPartitionMaintainer maintainer;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void bookingsOfDetachedPartitionAreListedWithArchive() {
+        long owner = jdbcTemplate.queryForObject("INSERT INTO users (user_name, user_email) "
+                + "VALUES ('owner', 'owner@example.com') RETURNING user_id", Long.class);
+        long booker = jdbcTemplate.queryForObject("INSERT INTO users (user_name, user_email) "
+                + "VALUES ('booker', 'booker@example.com') RETURNING user_id", Long.class);
+        long item = jdbcTemplate.queryForObject("INSERT INTO items (item_name, description, is_available, owner_id) "
+                + "VALUES ('table', 'black', true, ?) RETURNING item_id", Long.class, owner);
+        jdbcTemplate.queryForObject("SELECT create_bookings_partition(DATE '2020-01-01')", String.class);
+        long booking = jdbcTemplate.queryForObject("INSERT INTO bookings "
+                + "(start_time, end_time, item_id, booker_id, status, owner_id) "
+                + "VALUES (?, ?, ?, ?, 'APPROVED', ?) RETURNING booking_id", Long.class, START, START.plusDays(1),
+                item, booker, owner);
+
+        maintainer.maintain(YearMonth.now());
+
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('bookings_p202001')::text",
+                String.class)).isNull();
+        Assertions.assertThat(bookingService.findAllUsersBooking(booker, "PAST", null, null, 20, false)).isEmpty();
+        Assertions.assertThat(bookingService.findAllUsersBooking(booker, "PAST", null, null, 20, true))
+                .extracting(BookingOutputDto::getId).containsExactly(booking);
+        Assertions.assertThat(bookingService.findAllBookingsForItems(owner, "ALL", null, null, 20, true))
+                .extracting(BookingOutputDto::getId).containsExactly(booking);
+    }
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+        @Bean
+        DataSource dataSource() throws IOException {
+            postgres = EmbeddedPostgres.builder().start();
+            return postgres.getPostgresDatabase();
+        }
+    }
+}
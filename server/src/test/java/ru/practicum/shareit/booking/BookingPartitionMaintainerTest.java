@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.partition.BookingPartitionMaintainer;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingPartitionMaintainerTest {
+    private static final String CREATE = "SELECT create_bookings_partition(?)";
+    private static final String DETACH = "SELECT detach_bookings_partitions(?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void maintainCreatesCurrentAndFutureMonths() {
+        new BookingPartitionMaintainer(jdbcTemplate, 2, 0).maintain(YearMonth.of(2026, 11));
+
+        verify(jdbcTemplate).queryForObject(CREATE, String.class, LocalDate.of(2026, 11, 1));
+        verify(jdbcTemplate).queryForObject(CREATE, String.class, LocalDate.of(2026, 12, 1));
+        verify(jdbcTemplate).queryForObject(CREATE, String.class, LocalDate.of(2027, 1, 1));
+        verify(jdbcTemplate, times(3)).queryForObject(eq(CREATE), eq(String.class), any(LocalDate.class));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(LocalDate.class));
+    }
+
+    @Test
+    void maintainDetachesMonthsOutsideRetention() {
+        when(jdbcTemplate.queryForList(DETACH, String.class, LocalDate.of(2025, 11, 1)))
+                .thenReturn(List.of("bookings_p202510"));
+
+        new BookingPartitionMaintainer(jdbcTemplate, 0, 12).maintain(YearMonth.of(2026, 11));
+
+        verify(jdbcTemplate).queryForObject(CREATE, String.class, LocalDate.of(2026, 11, 1));
+        verify(jdbcTemplate).queryForList(DETACH, String.class, LocalDate.of(2025, 11, 1));
+    }
+
+    @Test
+    void negativeSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingPartitionMaintainer(jdbcTemplate, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BookingPartitionMaintainer(jdbcTemplate, 3, -1));
+    }
+}
@@ -5,18 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.filter.PassThroughUserIdFilter;
+import ru.practicum.shareit.user.filter.UserIdFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -27,8 +37,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,12 +48,27 @@ public class BookingServiceTest {
     @Mock
     private BookingDao bookingDao;
 
+    @Mock
+    private ArchivedBookingDao archivedBookingDao;
+
     @Mock
     private UserDao userDao;
 
+    @Spy
+    private UserIdFilter userIdFilter = new PassThroughUserIdFilter();
+
     @Mock
     private ItemDao itemDao;
 
+    @Mock
+    private BookingAvailability availability;
+
+    @Mock
+    private ItemLocks itemLocks;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl service;
 
@@ -67,14 +94,15 @@ public class BookingServiceTest {
 
     @Test
     void succeedCreateBooking() {
-        when(userDao.existsById(anyLong())).thenReturn(true);
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(bookingDao.save(any())).thenReturn(booking);
+        when(bookingDao.saveAndFlush(any())).thenReturn(booking);
 
         BookingOutputDto bookingOutDto = service.createBooking(bookingToSave, booker.getId());
 
         assertNotNull(bookingOutDto);
         assertEquals(booking.getId(), bookingOutDto.getId());
+        verify(eventPublisher).publishEvent(any(BookingChangedEvent.class));
     }
 
     @Test
@@ -93,7 +121,7 @@ public class BookingServiceTest {
     void createBookingFailByUserNotFound() {
         long userNotFoundId = 0L;
         String error = "Пользователь с запрашиваемым айди не зарегистрирован.";
-        when(userDao.existsById(anyLong())).thenReturn(false);
+        when(userDao.findById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -101,7 +129,39 @@ public class BookingServiceTest {
         );
 
         assertEquals(error, exception.getMessage());
-        verify(bookingDao, times(0)).save(any());
+        verify(bookingDao, times(0)).saveAndFlush(any());
+    }
+
+    @Test
+    void createBookingFailByOverlap() {
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(availability.overlaps(item.getId(), bookingToSave.getStart(), bookingToSave.getEnd())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> service.createBooking(bookingToSave, booker.getId()));
+
+        verify(bookingDao, times(0)).saveAndFlush(any());
+    }
+
+    @Test
+    void createBookingFailByExclusionConstraint() {
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(bookingDao.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("bookings_no_overlap"));
+
+        assertThrows(BookingConflictException.class, () -> service.createBooking(bookingToSave, booker.getId()));
+
+        verify(availability).evict(item.getId());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createBookingFailByUserFilteredOut() {
+        doReturn(false).when(userIdFilter).mightExist(anyLong());
+
+        assertThrows(NotFoundException.class, () -> service.createBooking(bookingToSave, 0L));
+
+        verifyNoInteractions(userDao, itemDao, bookingDao);
     }
 
     @Test
@@ -109,7 +169,7 @@ public class BookingServiceTest {
         long itemNotFoundId = 0L;
         bookingToSave.setItemId(itemNotFoundId);
 
-        when(userDao.existsById(anyLong())).thenReturn(true);
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(itemDao.findById(itemNotFoundId)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
@@ -122,7 +182,7 @@ public class BookingServiceTest {
     @Test
     void createBookingFailByItemNotAvailable() {
         item.setAvailable(false);
-        when(userDao.existsById(anyLong())).thenReturn(true);
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
 
         NotValidParameterException exception = assertThrows(
@@ -133,7 +193,7 @@ public class BookingServiceTest {
 
         item.setAvailable(true);
         item.setOwner(booker);
-        when(userDao.existsById(anyLong())).thenReturn(true);
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(itemDao.findById(anyLong())).thenReturn(Optional.ofNullable(item));
 
         NotFoundException e = assertThrows(
@@ -146,7 +206,7 @@ public class BookingServiceTest {
     @Test
     void succeedConfirmBookingByOwner() {
         when(bookingDao.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
-        when(bookingDao.save(any())).thenReturn(booking);
+        when(bookingDao.saveAndFlush(any())).thenReturn(booking);
 
         BookingOutputDto bookingOutDto = service.confirmBookingByOwner(owner.getId(), booking.getId(), true);
 
@@ -170,7 +230,7 @@ public class BookingServiceTest {
         );
 
         assertEquals("Бронирование с указанным айди не найдено.", exception.getMessage());
-        verify(bookingDao, times(0)).save(any());
+        verify(bookingDao, times(0)).saveAndFlush(any());
     }
 
     @Test
@@ -184,7 +244,7 @@ public class BookingServiceTest {
         );
 
         assertEquals("Бронирование уже отклонено.", exception.getMessage());
-        verify(bookingDao, times(0)).save(any());
+        verify(bookingDao, times(0)).saveAndFlush(any());
 
         booking.setStatus(BookingStatus.APPROVED);
         NotValidParameterException ex = assertThrows(
@@ -193,7 +253,7 @@ public class BookingServiceTest {
         );
 
         assertEquals("Бронирование уже подтверждено.", ex.getMessage());
-        verify(bookingDao, times(0)).save(any());
+        verify(bookingDao, times(0)).saveAndFlush(any());
     }
 
     @Test
@@ -234,15 +294,27 @@ public class BookingServiceTest {
     @Test
     void findAllBookingsForItemsFailByUserWithoutItems() {
         String error = "У пользователя нет вещей.";
-        when(userDao.existsById(anyLong())).thenReturn(true);
-        when(itemDao.findItemsByOwnerId(anyLong())).thenThrow(new NotFoundException(error));
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(itemDao.existsByOwnerId(anyLong())).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
-                () -> service.findAllBookingsForItems(owner.getId(), "all")
+                () -> service.findAllBookingsForItems(owner.getId(), "all", null, null, 20, false)
         );
 
         assertEquals(error, exception.getMessage());
     }
+
+    @Test
+    void findAllUsersBookingFailByHalfCursor() {
+        when(userDao.findById(anyLong())).thenReturn(Optional.of(new User()));
+
+        NotValidParameterException exception = assertThrows(
+                NotValidParameterException.class,
+                () -> service.findAllUsersBooking(booker.getId(), "all", NOW, null, 20, false)
+        );
+
+        assertEquals("Курсор страницы задаётся парой afterStart и afterId.", exception.getMessage());
+    }
 }
 
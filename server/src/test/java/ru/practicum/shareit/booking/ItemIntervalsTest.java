@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.ItemIntervals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemIntervalsTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private ItemIntervals intervals;
+
+    @BeforeEach
+    void setUp() {
+        intervals = new ItemIntervals();
+        intervals.put(1L, day(1), day(3));
+        intervals.put(2L, day(5), day(7));
+    }
+
+    @Test
+    void overlapsBusyInterval() {
+        assertTrue(intervals.overlaps(day(2), day(4)));
+        assertTrue(intervals.overlaps(day(4), day(6)));
+        assertTrue(intervals.overlaps(day(0), day(10)));
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        assertFalse(intervals.overlaps(day(3), day(5)));
+        assertFalse(intervals.overlaps(day(7), day(8)));
+        assertFalse(intervals.overlaps(day(0), day(1)));
+    }
+
+    @Test
+    void removedIntervalIsFree() {
+        intervals.remove(1L);
+
+        assertFalse(intervals.overlaps(day(2), day(4)));
+    }
+
+    @Test
+    void putReplacesIntervalOfSameBooking() {
+        intervals.put(2L, day(8), day(9));
+
+        assertFalse(intervals.overlaps(day(5), day(7)));
+        assertTrue(intervals.overlaps(day(8), day(9)));
+    }
+
+    @Test
+    void overlappingReturnsIntervalsInsideWindowInOrder() {
+        intervals.put(3L, day(9), day(10));
+
+        assertEquals(List.of(1L, 2L), bookingIds(intervals.overlapping(day(2), day(6))));
+        assertEquals(List.of(2L, 3L), bookingIds(intervals.overlapping(day(5), day(12))));
+        assertEquals(List.of(), bookingIds(intervals.overlapping(day(3), day(5))));
+        assertEquals(List.of(1L, 2L, 3L), bookingIds(intervals.overlapping(day(0), day(10))));
+    }
+
+    private static List<Long> bookingIds(List<ItemIntervals.Interval> found) {
+        return found.stream().map(ItemIntervals.Interval::bookingId).toList();
+    }
+
+    private static LocalDateTime day(int days) {
+        return BASE.plusDays(days);
+    }
+}
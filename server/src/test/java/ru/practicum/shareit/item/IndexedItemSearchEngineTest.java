@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.event.ItemRemovedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItemSearchEngine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IndexedItemSearchEngineTest {
+    private final Map<Long, Item> items = new HashMap<>();
+
+    @Mock
+    private ItemDao dao;
+
+    private IndexedItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new IndexedItemSearchEngine(dao);
+        lenient().when(dao.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).toList();
+        });
+    }
+
+    @Test
+    void searchUsesJpqlUntilFirstRebuildCompletes() {
+        when(dao.findByAvailableTrueAndDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(eq("drill"),
+                eq("drill"), eq(0L), any(Pageable.class))).thenReturn(List.of(item(1L, "drill", true)));
+
+        assertEquals(1, engine.search("drill", 0, 10).size());
+
+        when(dao.findByAvailableTrueAndIdGreaterThanOrderById(anyLong(), any(Limit.class))).thenReturn(List.of());
+        engine.rebuild();
+
+        assertTrue(engine.search("drill", 0, 10).isEmpty());
+        verify(dao, times(1)).findByAvailableTrueAndDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(
+                anyString(), anyString(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOverStalePages() {
+        when(dao.findByAvailableTrueAndIdGreaterThanOrderById(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            engine.onItemSaved(new ItemSavedEvent(1L, "new drill", "", true));
+            engine.onItemRemoved(new ItemRemovedEvent(2L));
+            engine.onItemSaved(new ItemSavedEvent(3L, "fresh drill", "", true));
+            return List.of(view(1L, "old drill"), view(2L, "gone drill"));
+        });
+        item(1L, "new drill", true);
+        item(3L, "fresh drill", true);
+
+        engine.rebuild();
+
+        assertEquals(List.of(1L, 3L), engine.search("drill", 0, 10).stream().map(Item::getId).toList());
+        assertTrue(engine.search("old", 0, 10).isEmpty());
+        assertTrue(engine.search("gone", 0, 10).isEmpty());
+    }
+
+    @Test
+    void rebuildScanDoesNotBlockOtherRebuildsAndChanges() throws Exception {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(dao.findByAvailableTrueAndIdGreaterThanOrderById(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    scanning.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return List.of(view(1L, "old drill"));
+                })
+                .thenReturn(List.of(view(1L, "old drill")));
+        item(1L, "old drill", true);
+        item(2L, "new drill", true);
+
+        CompletableFuture<?> slow = CompletableFuture.runAsync(engine::rebuild);
+        assertTrue(scanning.await(10, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> {
+            engine.rebuild();
+            engine.onItemSaved(new ItemSavedEvent(2L, "new drill", "", true));
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L), engine.search("drill", 0, 10).stream().map(Item::getId).toList());
+        release.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1L, 2L), engine.search("drill", 0, 10).stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void changesAfterRebuildUpdateIndex() {
+        when(dao.findByAvailableTrueAndIdGreaterThanOrderById(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(view(1L, "drill")));
+        item(1L, "drill", true);
+        engine.rebuild();
+
+        engine.onItemSaved(new ItemSavedEvent(1L, "drill", "", false));
+
+        assertTrue(engine.search("drill", 0, 10).isEmpty());
+    }
+
+    private Item item(long id, String name, boolean available) {
+        Item item = new Item(id, name, "", available, null, null);
+        items.put(id, item);
+        return item;
+    }
+
+    private static ItemSearchView view(long id, String name) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "";
+            }
+        };
+    }
+}
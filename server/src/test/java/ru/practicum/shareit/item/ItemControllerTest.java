@@ -7,11 +7,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.EtagFilterConfig;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.constants.Request;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoByOwner;
@@ -22,13 +26,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(EtagFilterConfig.class)
 public class ItemControllerTest {
     private static final String URL = "http://localhost:8080/items";
 
@@ -93,7 +100,7 @@ public class ItemControllerTest {
 
     @Test
     void succeedFindByIdItem() throws Exception {
-        when(itemService.findItemById(anyLong(), anyLong())).thenReturn(itemDtoByOwner);
+        when(itemService.findItemById(anyLong(), anyLong(), anyBoolean())).thenReturn(itemDtoByOwner);
 
         mockMvc.perform(get(URL + "/2")
                         .header(Request.USER_ID, 1L))
@@ -106,15 +113,50 @@ public class ItemControllerTest {
                 );
     }
 
+    @Test
+    void onlyItemCardAnswersWithEtag() throws Exception {
+        when(itemService.findItemById(anyLong(), anyLong(), anyBoolean())).thenReturn(itemDtoByOwner);
+        when(itemService.findItemByDescription(any(), anyLong(), anyInt())).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get(URL + "/2")
+                        .header(Request.USER_ID, 1L))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        mockMvc.perform(get(URL + "/search")
+                        .param("text", "table"))
+                .andExpectAll(
+                        status().isOk(),
+                        header().doesNotExist(HttpHeaders.ETAG)
+                );
+    }
+
     @Test
     void findByIdItemWithoutSharerUserId() throws Exception {
-        when(itemService.findItemById(anyLong(), anyLong())).thenReturn(itemDtoByOwner);
+        when(itemService.findItemById(anyLong(), anyLong(), anyBoolean())).thenReturn(itemDtoByOwner);
 
         mockMvc.perform(get(URL + "/2"))
                 .andExpect(
                         status().isBadRequest());
     }
 
+    @Test
+    void succeedFindAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.findAvailability(2L, from, to)).thenReturn(List.of(
+                new AvailabilitySlotDto(from, from.plusDays(1), false),
+                new AvailabilitySlotDto(from.plusDays(1), to, true)));
+
+        mockMvc.perform(get(URL + "/2/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()", Matchers.is(2)),
+                        jsonPath("$[0].free", Matchers.is(false)),
+                        jsonPath("$[1].free", Matchers.is(true))
+                );
+    }
+
     @Test
     void succeedAddComment() throws Exception {
         when(itemService.addComment(any(), anyInt(), anyInt())).thenReturn(commentDto);
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -16,10 +19,13 @@ import ru.practicum.shareit.item.dto.ItemDtoByOwner;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.TrigramFilterItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Transactional
@@ -31,6 +37,9 @@ public class ItemIntegrationTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemDao itemDao;
+
     private final LocalDateTime now = LocalDateTime.now();
 
     private User owner;
@@ -97,7 +106,7 @@ public class ItemIntegrationTest {
         Long ownerId = owner.getId();
         Long bookerId = booker.getId();
 
-        List<ItemDtoByOwner> returnedList = itemService.findAll(ownerId);
+        List<ItemDtoByOwner> returnedList = itemService.findAll(ownerId, false);
         Assertions.assertThat(returnedList)
                 .isNotEmpty()
                 .hasSize(2);
@@ -105,26 +114,128 @@ public class ItemIntegrationTest {
         Assertions.assertThat(returnedList.get(1).getName()).isEqualTo(item2.getName());
 
 
-        List<ItemDtoByOwner> returnedList2 = itemService.findAll(bookerId);
+        List<ItemDtoByOwner> returnedList2 = itemService.findAll(bookerId, false);
         Assertions.assertThat(returnedList2).isEmpty();
     }
 
+    @Test
+    void getAllItems_LastAndNextBooking() {
+        Booking next = new Booking(0, item, now.plusDays(2), now.plusDays(3), booker, BookingStatus.APPROVED);
+        em.persist(next);
+        em.persist(new Booking(0, item, now.plusDays(5), now.plusDays(6), booker, BookingStatus.APPROVED));
+        em.persist(new Booking(0, item, now.plusDays(1), now.plusDays(2), booker, BookingStatus.REJECTED));
+        em.persist(new Booking(0, item, now.minusDays(1), now.minusHours(1), booker, BookingStatus.WAITING));
+
+        List<ItemDtoByOwner> returnedList = itemService.findAll(owner.getId(), false);
+
+        ItemDtoByOwner withBookings = returnedList.get(0);
+        Assertions.assertThat(withBookings.getLastBooking()).isNotNull();
+        Assertions.assertThat(withBookings.getLastBooking().getStart())
+                .isCloseTo(now.minusDays(3), Assertions.within(1, ChronoUnit.MILLIS));
+        Assertions.assertThat(withBookings.getNextBooking()).isNotNull();
+        Assertions.assertThat(withBookings.getNextBooking().getId()).isEqualTo(next.getId());
+        Assertions.assertThat(returnedList.get(1).getLastBooking()).isNull();
+        Assertions.assertThat(returnedList.get(1).getNextBooking()).isNull();
+    }
+
+    @Test
+    void getAllItems_AtMostThreeStatements() {
+        for (int i = 0; i < 10; i++) {
+            User requester = new User(null, "requester" + i, "requester" + i + "@example.com");
+            em.persist(requester);
+            ItemRequest request = new ItemRequest(null, "need item " + i, requester, now.minusDays(10));
+            em.persist(request);
+            Item requested = new Item(null, "item" + i, "description", true, owner, request);
+            em.persist(requested);
+            em.persist(new Booking(0, requested, now.minusDays(2), now.minusDays(1), requester,
+                    BookingStatus.APPROVED));
+            em.persist(new Booking(0, requested, now.plusDays(1), now.plusDays(2), booker, BookingStatus.APPROVED));
+            em.persist(new Comment(null, "comment" + i, requester, requested, now.minusHours(1)));
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemDtoByOwner> returnedList = itemService.findAll(owner.getId(), false);
+
+        Assertions.assertThat(returnedList).hasSize(12);
+        Assertions.assertThat(returnedList.get(11).getComments()).hasSize(1);
+        Assertions.assertThat(returnedList.get(11).getComments().get(0).getAuthorName()).isEqualTo("requester9");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
     @Test
     void findItems_Normal() {
         String search = "black";
 
-        List<ItemDto> list = itemService.findItemByDescription(search);
+        List<ItemDto> list = itemService.findItemByDescription(search, 0, 20);
 
         Assertions.assertThat(list).isNotEmpty().hasSize(2);
         Assertions.assertThat(list.get(0).getName()).isEqualTo(item.getName());
         Assertions.assertThat(list.get(1).getName()).isEqualTo(item2.getName());
     }
 
+    @Test
+    void findItems_Paged() {
+        String search = "black";
+
+        List<ItemDto> firstPage = itemService.findItemByDescription(search, 0, 1);
+        List<ItemDto> secondPage = itemService.findItemByDescription(search, firstPage.get(0).getId(), 1);
+        List<ItemDto> lastPage = itemService.findItemByDescription(search, secondPage.get(0).getId(), 1);
+
+        Assertions.assertThat(firstPage).hasSize(1);
+        Assertions.assertThat(firstPage.get(0).getName()).isEqualTo(item.getName());
+        Assertions.assertThat(secondPage).hasSize(1);
+        Assertions.assertThat(secondPage.get(0).getName()).isEqualTo(item2.getName());
+        Assertions.assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    void findItemsByTrigram_PagesInCursorOrder() {
+        Item blackest = new Item(null, "black", "black", true, owner, null);
+        em.persist(blackest);
+        TrigramFilterItemSearchEngine engine = new TrigramFilterItemSearchEngine(itemDao);
+
+        List<Item> firstPage = engine.search("black", 0, 2);
+        List<Item> lastPage = engine.search("black", firstPage.get(firstPage.size() - 1).getId(), 2);
+
+        Assertions.assertThat(firstPage).extracting(Item::getId).containsExactly(item.getId(), item2.getId());
+        Assertions.assertThat(lastPage).extracting(Item::getId).containsExactly(blackest.getId());
+    }
+
+    @Test
+    void findFreeItems_ExcludesItemsWithOverlappingApprovedBooking() {
+        em.persist(new Booking(0, item2, now.minusDays(5), now.minusDays(4), booker, BookingStatus.WAITING));
+        em.flush();
+
+        List<ItemDto> busyWindow = itemService.findFreeItemsByDescription("black", now.minusDays(5).plusHours(1),
+                now.minusDays(4).minusHours(1), 0, 20);
+        List<ItemDto> gapWindow = itemService.findFreeItemsByDescription("black", now.minusDays(4).plusHours(1),
+                now.minusDays(3).minusHours(1), 0, 20);
+
+        Assertions.assertThat(busyWindow).extracting(ItemDto::getId).containsExactly(item2.getId());
+        Assertions.assertThat(gapWindow).extracting(ItemDto::getId).containsExactly(item.getId(), item2.getId());
+    }
+
+    @Test
+    void findFreeItems_SingleStatement() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        List<ItemDto> list = itemService.findFreeItemsByDescription("black", now.minusDays(3), now.minusDays(1), 0, 20);
+
+        Assertions.assertThat(list).extracting(ItemDto::getId).containsExactly(item2.getId());
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     @Test
     void findItems_EmptySearchText_Normal() {
         String search = "";
 
-        List<ItemDto> list = itemService.findItemByDescription(search);
+        List<ItemDto> list = itemService.findItemByDescription(search, 0, 20);
 
         Assertions.assertThat(list).isEmpty();
     }
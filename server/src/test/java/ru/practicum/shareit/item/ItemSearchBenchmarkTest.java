@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение p99 поиска по индексу с полным просмотром, как при {@code LIKE '%text%'}.
+ * Запуск: {@code mvn test -Dtest=ItemSearchBenchmarkTest -Dshareit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class ItemSearchBenchmarkTest {
+    private static final String[] WORDS = {"дрель", "отвертка", "молоток", "пила", "лестница", "палатка", "велосипед",
+            "table", "chair", "black", "white", "wooden", "metal", "garden", "camping", "drill", "ladder", "tent",
+            "bike", "lamp"};
+    private static final int QUERIES = 2000;
+
+    @Test
+    void compareP99() {
+        for (int size : new int[]{100_000, 1_000_000}) {
+            run(size);
+        }
+    }
+
+    private void run(int size) {
+        Random random = new Random(size);
+        ItemSearchIndex index = new ItemSearchIndex();
+        List<String[]> documents = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            String name = word(random) + " " + id;
+            String description = word(random) + " " + word(random) + " " + word(random);
+            index.put(id, name, description);
+            documents.add(new String[]{name.toLowerCase(Locale.ROOT), description.toLowerCase(Locale.ROOT)});
+        }
+
+        long[] indexNanos = new long[QUERIES];
+        long[] scanNanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = query(random, size);
+
+            long started = System.nanoTime();
+            List<Long> found = index.search(query);
+            indexNanos[i] = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            List<Long> scanned = scan(documents, query);
+            scanNanos[i] = System.nanoTime() - started;
+
+            assertEquals(scanned, found);
+        }
+        System.out.printf("items=%d index p99=%.3f ms scan p99=%.3f ms%n", size, p99(indexNanos), p99(scanNanos));
+    }
+
+    private static List<Long> scan(List<String[]> documents, String query) {
+        String text = query.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            String[] document = documents.get(i);
+            if (document[0].contains(text) || document[1].contains(text)) {
+                result.add((long) i + 1);
+            }
+        }
+        return result;
+    }
+
+    private static String query(Random random, int size) {
+        return switch (random.nextInt(3)) {
+            case 0 -> word(random) + " " + (random.nextInt(size) + 1);
+            case 1 -> word(random) + " " + word(random);
+            default -> String.valueOf(random.nextInt(size) + 1);
+        };
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static double p99(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.put(1L, "Дрель", "Аккумуляторная дрель");
+        index.put(2L, "Table", "Black wooden table");
+        index.put(3L, "Chair", "black chair");
+    }
+
+    @Test
+    void searchIgnoresCase() {
+        assertEquals(List.of(2L, 3L), index.search("BLACK"));
+        assertEquals(List.of(1L), index.search("ДРЕЛЬ"));
+    }
+
+    @Test
+    void searchMatchesNameOrDescription() {
+        assertEquals(List.of(2L), index.search("tab"));
+        assertEquals(List.of(2L), index.search("wooden"));
+    }
+
+    @Test
+    void searchShortTextScansDocuments() {
+        assertEquals(List.of(3L), index.search("ch"));
+        assertEquals(List.of(1L), index.search("а"));
+    }
+
+    @Test
+    void searchRequiresContiguousSubstring() {
+        index.put(4L, "abcxyz", "bcd");
+
+        assertTrue(index.search("abcd").isEmpty());
+    }
+
+    @Test
+    void searchPagesByIdCursor() {
+        index.put(5L, "Black lamp", "desk lamp");
+
+        assertEquals(List.of(2L, 3L), index.search("black", 0, 2));
+        assertEquals(List.of(5L), index.search("black", 3L, 2));
+        assertTrue(index.search("black", 5L, 2).isEmpty());
+    }
+
+    @Test
+    void updateReplacesDocument() {
+        index.put(2L, "Desk", "white desk");
+
+        assertTrue(index.search("table").isEmpty());
+        assertEquals(List.of(2L), index.search("desk"));
+    }
+
+    @Test
+    void removeDropsDocument() {
+        index.remove(3L);
+
+        assertEquals(List.of(2L), index.search("black"));
+        assertEquals(2, index.size());
+    }
+}
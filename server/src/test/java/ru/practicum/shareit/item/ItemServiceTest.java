@@ -6,27 +6,40 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.ItemIntervals;
+import ru.practicum.shareit.booking.dao.ArchivedBookingDao;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.NotValidParameterException;
 import ru.practicum.shareit.item.dao.CommentDao;
 import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemRemovedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,9 +57,21 @@ public class ItemServiceTest {
     @Mock
     private BookingDao bookingRepository;
 
+    @Mock
+    private ArchivedBookingDao archivedBookingRepository;
+
     @Mock
     private CommentDao commentRepository;
 
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private BookingAvailability availability;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemServiceImpl service;
 
@@ -85,6 +110,7 @@ public class ItemServiceTest {
         assertNotNull(itemDto);
         assertEquals(item.getId(), itemDto.getId());
         verify(repository, times(1)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ItemSavedEvent.class));
     }
 
     @Test
@@ -210,7 +236,7 @@ public class ItemServiceTest {
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
-                () -> service.findItemById(owner.getId(), itemNotFoundId)
+                () -> service.findItemById(owner.getId(), itemNotFoundId, false)
         );
 
         assertEquals(error, exception.getMessage());
@@ -228,6 +254,41 @@ public class ItemServiceTest {
 
         verify(repository, times(1)).findById(any());
         verify(repository, times(1)).deleteById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ItemRemovedEvent.class));
+    }
+
+    @Test
+    void succeedFindItemByDescription() {
+        when(searchEngine.search("tab", 0, 20)).thenReturn(List.of(item));
+
+        List<ItemDto> found = service.findItemByDescription("tab", 0, 20);
+
+        assertEquals(1, found.size());
+        assertEquals(item.getId(), found.get(0).getId());
+    }
+
+    @Test
+    void findItemByDescriptionBlankText() {
+        List<ItemDto> found = service.findItemByDescription(" ", 0, 20);
+
+        assertEquals(0, found.size());
+        verify(searchEngine, times(0)).search(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findItemByDescriptionLimitsPageSize() {
+        when(searchEngine.search("tab", 4L, ItemService.MAX_SEARCH_PAGE_SIZE)).thenReturn(List.of(item2));
+
+        List<ItemDto> found = service.findItemByDescription("tab", 4L, 10_000);
+
+        assertEquals(1, found.size());
+        assertEquals(item2.getId(), found.get(0).getId());
+    }
+
+    @Test
+    void findItemByDescriptionFailByPageParameters() {
+        assertThrows(NotValidParameterException.class, () -> service.findItemByDescription("tab", 0, 0));
+        assertThrows(NotValidParameterException.class, () -> service.findItemByDescription("tab", -1, 20));
     }
 
     @Test
@@ -257,4 +318,67 @@ public class ItemServiceTest {
 
         assertEquals(error, exception.getMessage());
     }
+
+    @Test
+    void findFreeItemsByDescriptionFailByPeriod() {
+        assertThrows(NotValidParameterException.class,
+                () -> service.findFreeItemsByDescription("tab", NOW.plusDays(1), NOW, 0, 20));
+        assertThrows(NotValidParameterException.class,
+                () -> service.findFreeItemsByDescription("tab", null, NOW, 0, 20));
+    }
+
+    @Test
+    void findAvailabilitySplitsWindowIntoFreeAndBusySlots() {
+        LocalDateTime from = NOW.plusDays(1);
+        LocalDateTime to = NOW.plusDays(10);
+        when(repository.existsById(item.getId())).thenReturn(true);
+        when(availability.busy(item.getId(), from, to)).thenReturn(List.of(
+                new ItemIntervals.Interval(1L, NOW, NOW.plusDays(2)),
+                new ItemIntervals.Interval(2L, NOW.plusDays(4), NOW.plusDays(5)),
+                new ItemIntervals.Interval(3L, NOW.plusDays(5), NOW.plusDays(6))));
+
+        List<AvailabilitySlotDto> slots = service.findAvailability(item.getId(), from, to);
+
+        assertEquals(5, slots.size());
+        assertSlot(slots.get(0), from, NOW.plusDays(2), false);
+        assertSlot(slots.get(1), NOW.plusDays(2), NOW.plusDays(4), true);
+        assertSlot(slots.get(2), NOW.plusDays(4), NOW.plusDays(5), false);
+        assertSlot(slots.get(3), NOW.plusDays(5), NOW.plusDays(6), false);
+        assertSlot(slots.get(4), NOW.plusDays(6), to, true);
+    }
+
+    @Test
+    void findAvailabilityWholeWindowFree() {
+        LocalDateTime from = NOW.plusDays(1);
+        LocalDateTime to = NOW.plusDays(2);
+        when(repository.existsById(item.getId())).thenReturn(true);
+        when(availability.busy(item.getId(), from, to)).thenReturn(List.of());
+
+        List<AvailabilitySlotDto> slots = service.findAvailability(item.getId(), from, to);
+
+        assertEquals(1, slots.size());
+        assertSlot(slots.get(0), from, to, true);
+    }
+
+    @Test
+    void findAvailabilityFailByPeriod() {
+        assertThrows(NotValidParameterException.class,
+                () -> service.findAvailability(item.getId(), NOW.plusDays(2), NOW.plusDays(1)));
+        assertThrows(NotValidParameterException.class,
+                () -> service.findAvailability(item.getId(), NOW, NOW));
+    }
+
+    @Test
+    void findAvailabilityFailItemNotFound() {
+        when(repository.existsById(item.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> service.findAvailability(item.getId(), NOW.plusDays(1), NOW.plusDays(2)));
+    }
+
+    private static void assertSlot(AvailabilitySlotDto slot, LocalDateTime start, LocalDateTime end, boolean free) {
+        assertEquals(start, slot.getStart());
+        assertEquals(end, slot.getEnd());
+        assertEquals(free, slot.getFree());
+    }
 }
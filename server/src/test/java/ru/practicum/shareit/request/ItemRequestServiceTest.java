@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -17,6 +18,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoByOwner;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.filter.PassThroughUserIdFilter;
+import ru.practicum.shareit.user.filter.UserIdFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -42,6 +45,9 @@ public class ItemRequestServiceTest {
     @Mock
     private UserDao userRepository;
 
+    @Spy
+    private UserIdFilter userIdFilter = new PassThroughUserIdFilter();
+
     @Mock
     private ItemDao itemRepository;
 
@@ -99,7 +105,7 @@ public class ItemRequestServiceTest {
     @Test
     void succeedFindAllByRequesterId() {
         long userId = requester.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         when(repository.findAllByRequesterId(userId)).thenReturn(List.of(request));
 
         List<ItemRequestDtoByOwner> requests = service.findAllUsersRequestsWithReplies(userId);
@@ -140,7 +146,7 @@ public class ItemRequestServiceTest {
     @Test
     void findByIdWithReplies() {
         long userId = requester.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         long requestId = request.getId();
         when(repository.findById(requestId)).thenReturn(Optional.of(request));
         when(itemRepository.findAllByOwnerId(userId)).thenReturn(List.of(item));
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class UserCacheIntegrationTest {
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingDao bookingDao;
+    @Autowired
+    private CommentDao commentDao;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        user = userService.createUser(new UserDto(0, "cached", "cached@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.removeUserById(user.getId());
+    }
+
+    @Test
+    void findUserById_RepeatedLookupHitsCache() {
+        userService.findUserById(user.getId());
+        statistics.clear();
+
+        UserDto returned = userService.findUserById(user.getId());
+
+        Assertions.assertThat(returned.getName()).isEqualTo("cached");
+        Assertions.assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void updateUser_RefreshesCachedEntry() {
+        userService.findUserById(user.getId());
+
+        userService.updateUser(new UserDto(user.getId(), "renamed", null), user.getId());
+
+        Assertions.assertThat(userService.findUserById(user.getId()).getName()).isEqualTo("renamed");
+    }
+
+    @Test
+    void archiveCopies_KeepUnrelatedCachedEntries() {
+        userService.findUserById(user.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingDao.copyToArchive(Set.of(-1L), now, now);
+            commentDao.copyToArchive(Set.of(-1L), now);
+        });
+
+        Assertions.assertThat(emf.getCache().contains(User.class, user.getId())).isTrue();
+    }
+
+    @Test
+    void removeUser_EvictsCachedEntry() {
+        UserDto removed = userService.createUser(new UserDto(0, "removed", "removed@example.com"));
+        userService.findUserById(removed.getId());
+
+        userService.removeUserById(removed.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.findUserById(removed.getId()));
+    }
+}
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.EtagFilterConfig;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
@@ -26,10 +29,13 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(EtagFilterConfig.class)
 public class UserControllerTest {
     private static final String URL = "http://localhost:8080/users";
 
@@ -130,6 +136,35 @@ public class UserControllerTest {
                 );
     }
 
+    @Test
+    void findByIdAnswersNotModifiedForMatchingEtag() throws Exception {
+        when(userService.findUserById(anyLong())).thenReturn(userDto);
+
+        String etag = mockMvc.perform(get(URL + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(URL + "/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpectAll(
+                        status().isNotModified(),
+                        content().string("")
+                );
+    }
+
+    @Test
+    void updateAnswersWithoutEtag() throws Exception {
+        when(userService.updateUser(any(), anyLong())).thenReturn(userDto);
+
+        mockMvc.perform(patch(URL + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(userDto)))
+                .andExpectAll(
+                        status().isOk(),
+                        header().doesNotExist(HttpHeaders.ETAG)
+                );
+    }
+
     @Test
     void succeedDeleteUser() throws Exception {
         mockMvc.perform(delete(URL + "/1"))
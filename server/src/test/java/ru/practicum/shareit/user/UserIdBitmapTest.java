@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.filter.UserIdBitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserIdBitmapTest {
+    private UserIdBitmap bitmap;
+
+    @BeforeEach
+    void setUp() {
+        bitmap = new UserIdBitmap();
+        bitmap.add(1L);
+        bitmap.add(2L);
+        bitmap.add(1_000_000L);
+    }
+
+    @Test
+    void containsAddedIds() {
+        assertTrue(bitmap.mightContain(1L));
+        assertTrue(bitmap.mightContain(1_000_000L));
+        assertFalse(bitmap.mightContain(3L));
+        assertEquals(3, bitmap.size());
+    }
+
+    @Test
+    void removeForgetsId() {
+        bitmap.remove(2L);
+
+        assertFalse(bitmap.mightContain(2L));
+        assertTrue(bitmap.mightContain(1L));
+    }
+
+    @Test
+    void negativeIdsNeverExist() {
+        assertFalse(bitmap.mightContain(-1L));
+    }
+
+    @Test
+    void idsBeyondIntRangeAreNotRejected() {
+        assertTrue(bitmap.mightContain(Integer.MAX_VALUE + 1L));
+    }
+}
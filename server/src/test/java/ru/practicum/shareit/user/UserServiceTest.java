@@ -6,9 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserRemovedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
@@ -30,6 +33,9 @@ class UserServiceTest {
     @Mock
     private UserDao repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl service;
 
@@ -51,6 +57,7 @@ class UserServiceTest {
         assertNotNull(userSaved);
         assertEquals(user.getId(), userSaved.getId());
         verify(repository, times(1)).save(any());
+        verify(eventPublisher).publishEvent(any(UserCreatedEvent.class));
     }
 
     @Test
@@ -177,6 +184,7 @@ class UserServiceTest {
         service.removeUserById(userId);
 
         verify(repository, times(1)).deleteById(userId);
+        verify(eventPublisher).publishEvent(any(UserRemovedEvent.class));
     }
 }
 